@@ -32,6 +32,18 @@ android {
     buildFeatures {
         viewBinding  = true
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // Kalıcılık katmanı benchmark'ları sadece -Ppersistence.benchmark=true ile çalışır.
+                it.systemProperty("persistence.benchmark", project.findProperty("persistence.benchmark") ?: "false")
+                it.systemProperty("persistence.benchmark.maxRows", project.findProperty("persistence.benchmark.maxRows") ?: "100000")
+                it.maxHeapSize = "2g"
+                it.testLogging.showStandardStreams = true
+            }
+        }
+    }
 }
 
 dependencies {
@@ -49,11 +61,16 @@ dependencies {
 
     implementation ("com.google.code.gson:gson:2.10.1")
     implementation("com.squareup.okhttp3:okhttp:4.9.0")
+
+    // @DbTableAnnotation modelleri için <Model>_Mapper sınıflarını üretir
+    annotationProcessor(project(":persistence-compiler"))
+    testAnnotationProcessor(project(":persistence-compiler"))
     
     implementation(libs.navigation.fragment)
     implementation(libs.navigation.ui)
 
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -18,4 +18,7 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# Mapper, derleme zamanında üretilen eşleyicileri isimle (<Model>_Mapper) yükler.
+-keep class * implements lib.persistence.profile.EntityMapper { <init>(); }
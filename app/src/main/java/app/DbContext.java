@@ -2,20 +2,47 @@ package app;
 
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 
+import java.util.Collections;
+import java.util.List;
+
 import app.model.BtDevice;
 import lib.persistence.ADbContext;
+import lib.persistence.DbOptions;
 import lib.persistence.command.definition.CreateTableCommand;
-import lib.persistence.command.definition.DropTableCommand;
+import lib.persistence.migration.Migration;
 import app.model.Todo;
 
 public class DbContext extends ADbContext {
     private static final String dbName = "local.db";
-    private static final int version = 5;
+    private static final int version = 6;
+
+    // 6. sürümde BtDevice.address UNIQUE oldu. Tablo yeniden kurulurken tekrar eden adresler
+    // kopyalamayı bozmasın diye her adres için ilk eklenen (en küçük id'li) kayıt tutulur.
+    private static final Migration DEDUPLICATE_BT_DEVICE_ADDRESSES = new Migration(5, 6) {
+        @Override
+        public void migrate(SQLiteDatabase db) {
+            try (Cursor cursor = db.rawQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'BtDevices'", null)) {
+                if (!cursor.moveToFirst()) return;
+            }
+            db.execSQL("DELETE FROM BtDevices WHERE address IS NOT NULL AND id NOT IN "
+                    + "(SELECT MIN(id) FROM BtDevices WHERE address IS NOT NULL GROUP BY address)");
+        }
+    };
 
     public DbContext(Context context) {
-        super(context, dbName, null, version);
+        // Liste ekranlarındaki okumalar toplu yazmaları beklemesin diye WAL açık.
+        super(context, dbName, null, version, new DbOptions.Builder()
+                .writeAheadLogging(true)
+                .build());
+    }
+
+    @Override
+    protected Class<?>[] getEntityTypes() {
+        // Bu tiplerin eksik indeksleri açılışta oluşturulur; onUpgrade tablolarını model tanımıyla eşitler.
+        return new Class<?>[]{Todo.class, BtDevice.class};
     }
 
     @Override
@@ -33,11 +60,14 @@ public class DbContext extends ADbContext {
         // SQLiteOpenHelper zaten thread-safe olduğu için ekstra synchronized bloğuna gerek yoktur.
         // Bu metod, veritabanı versiyonu yükseltildiğinde çalışır.
 
-        // Bu basit bir upgrade stratejisidir (tüm tabloları silip yeniden oluşturur).
-        // Gerçek projelerde veri kaybını önlemek için daha gelişmiş migration adımları uygulanmalıdır.
-        sqLiteDatabase.execSQL(DropTableCommand.build(Todo.class).getQuery());
-        sqLiteDatabase.execSQL(DropTableCommand.build(BtDevice.class).getQuery());
+        // Tablolar silinmez: eksik sütunlar ALTER TABLE ile eklenir, gerekirse tablo veri
+        // kopyalanarak yeniden kurulur. Veri dönüştürmesi gereken sürümler için getMigrations()
+        // içinde Migration adımı tanımlanmalıdır.
+        migrate(sqLiteDatabase, oldVersion, newVersion);
+    }
 
-        onCreate(sqLiteDatabase);
+    @Override
+    protected List<Migration> getMigrations() {
+        return Collections.singletonList(DEDUPLICATE_BT_DEVICE_ADDRESSES);
     }
 }
\ No newline at end of file
@@ -9,6 +9,6 @@ public class BtDevice {
     public int id;
     @DbColumnAnnotation(isNullable = false, ordinal = 2)
     public String name;
-    @DbColumnAnnotation(isNullable = false,ordinal = 3)
+    @DbColumnAnnotation(isNullable = false,ordinal = 3, isUnique = true)
     public  String address;
 }
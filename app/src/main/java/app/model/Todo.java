@@ -1,6 +1,7 @@
 package app.model;
 
 import lib.persistence.annotations.DbColumnAnnotation;
+import lib.persistence.annotations.DbIndex;
 import lib.persistence.annotations.DbTableAnnotation;
 
 @DbTableAnnotation
@@ -8,6 +9,7 @@ public class Todo {
     @DbColumnAnnotation(ordinal = 1,isPrimaryKey = true)
     public int id;
     @DbColumnAnnotation(ordinal = 2)
+    @DbIndex
     public int userId;
     @DbColumnAnnotation(ordinal = 3,isNullable = false)
     public String title;
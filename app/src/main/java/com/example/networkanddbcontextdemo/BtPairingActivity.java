@@ -18,6 +18,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import app.model.BtDevice;
@@ -250,41 +252,28 @@ public class BtPairingActivity extends AppCompatActivity {
             return;
         }
 
-        // 1) Öncekileri sil → 2) Ekle
-        repo.deleteAll(new DbCallback<Integer>() {
+        // Tabloda sadece bu cihaz kalır: aynı adres varsa güncellenir, diğerleri silinir (tek transaction).
+        repo.replaceSet(Collections.singletonList(btDevice), new DbCallback<ArrayList<BtDevice>>() {
             @Override
-            public void onResult(DbResult<Integer> delResult) {
-                // UI işlemlerini ana threade post et
+            public void onResult(DbResult<ArrayList<BtDevice>> insResult) {
                 runOnUiThread(() -> {
-                    if (!delResult.isSuccess()) {
-                        // Silme başarısız olsa da eklemeyi deneyebiliriz (iş mantığına göre)
-                        // İstersen burada return edip butonu açabilirsin.
-                    }
-                });
-
-                repo.insert(btDevice, new DbCallback<BtDevice>() {
-                    @Override
-                    public void onResult(DbResult<BtDevice> insResult) {
-                        runOnUiThread(() -> {
-                            if (insResult.isSuccess()) {
-                                Toast.makeText(BtPairingActivity.this,
-                                        deviceToPair.getName() + " kaydedildi.",
-                                        Toast.LENGTH_LONG).show();
-
-                                Intent control = new Intent(BtPairingActivity.this, BtControlActivity.class);
-                                control.putExtra(BtControlActivity.EXTRA_DEVICE_ADDRESS, deviceToPair.getAddress());
-                                control.putExtra(BtControlActivity.EXTRA_DEVICE_NAME, deviceToPair.getName());
-                                control.putExtra(BtControlActivity.EXTRA_AUTO_CONNECT, true); // istersen otomatik bağlansın
-                                startActivity(control);
-
-                                finish();
-                            } else {
-                                saveButton.setEnabled(true);
-                                Toast.makeText(BtPairingActivity.this,
-                                        deviceToPair.getName() + " kaydedilemedi.",
-                                        Toast.LENGTH_LONG).show();
-                            }
-                        });
+                    if (insResult.isSuccess()) {
+                        Toast.makeText(BtPairingActivity.this,
+                                deviceToPair.getName() + " kaydedildi.",
+                                Toast.LENGTH_LONG).show();
+
+                        Intent control = new Intent(BtPairingActivity.this, BtControlActivity.class);
+                        control.putExtra(BtControlActivity.EXTRA_DEVICE_ADDRESS, deviceToPair.getAddress());
+                        control.putExtra(BtControlActivity.EXTRA_DEVICE_NAME, deviceToPair.getName());
+                        control.putExtra(BtControlActivity.EXTRA_AUTO_CONNECT, true); // istersen otomatik bağlansın
+                        startActivity(control);
+
+                        finish();
+                    } else {
+                        saveButton.setEnabled(true);
+                        Toast.makeText(BtPairingActivity.this,
+                                deviceToPair.getName() + " kaydedilemedi.",
+                                Toast.LENGTH_LONG).show();
                     }
                 });
             }
@@ -20,6 +20,7 @@ import lib.net.NetworkCallback;
 import lib.persistence.DbCallback;
 import lib.persistence.DbResult;
 import lib.persistence.RepositoryFactory;
+import lib.persistence.command.query.Select;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -53,6 +54,20 @@ public class MainActivity extends AppCompatActivity {
         progressBar = findViewById(R.id.progressBar);
         startRequestsButton = findViewById(R.id.startRequestsButton);
         startRequestsButton.setOnClickListener(v -> startRequests());
+
+        // Todo tablosu her değiştiğinde liste yeniden okunur; gözlem activity yok edilince durur.
+        RepositoryFactory.getTodoRepository(getApplicationContext()).observe(this, Select.from(Todo.class), new DbCallback<ArrayList<Todo>>() {
+            @Override
+            public void onResult(DbResult<ArrayList<Todo>> result) {
+                if(result.isSuccess()) {
+                    Log.d(TAG, result.getData().size()+" adet Todo listelendi.");
+                }
+                else{
+                    Exception e = ((DbResult.Error<ArrayList<Todo>>) result).getException();
+                    Log.e(TAG, "SELECT - Hata: " + e.getMessage());
+                }
+            }
+        });
     }
 
     private void startRequests() {
@@ -82,46 +97,29 @@ public class MainActivity extends AppCompatActivity {
             statusTextView.setText("Başarılı: " + todos.size() + " adet todo alındı.");
 
             TodoRepository todoRepository =  RepositoryFactory.getTodoRepository(getApplicationContext());
-            Todo todo = null;
-
-            for (int i = 0; i < todos.size(); i++) {
-                todo = todos.get(i);
-                todoRepository.insert(todo, new DbCallback<Todo>() {
-                    @Override
-                    public void onResult(DbResult<Todo> result) {
-                        if(result.isSuccess()) {
-                            Todo createdTodo = createdTodo = result.getData();
-                            Log.d(TAG, "CREATE - Başarılı: " + createdTodo);
-                        }else {
-                            Exception e = ((DbResult.Error<Todo>) result).getException();
-                            Log.e(TAG, "CREATE - Hata: " + e.getMessage());
-                        }
-                    }
-                });
-            }
 
-            todoRepository.deleteById(1, new DbCallback<Todo>(){
+            // Yerelde zaten bulunan todo'lar güncellenir, yeniler eklenir; tümü tek transaction'da.
+            todoRepository.upsertAll(todos, new DbCallback<ArrayList<Todo>>() {
                 @Override
-                public void onResult(DbResult<Todo> result) {
+                public void onResult(DbResult<ArrayList<Todo>> result) {
                     if(result.isSuccess()) {
-                        Log.d(TAG, "deleteById - Başarılı: " + result.getData());
-                    }
-                    else{
-                        Exception e = ((DbResult.Error<Todo>) result).getException();
-                        Log.e(TAG, "deleteById - Hata: " + e.getMessage());
+                        Log.d(TAG, "CREATE - Başarılı: " + result.getData().size() + " adet Todo eklendi.");
+                    }else {
+                        DbResult.Error<ArrayList<Todo>> error = (DbResult.Error<ArrayList<Todo>>) result;
+                        Log.e(TAG, "CREATE - Hata: " + error.getErrorMessage());
                     }
                 }
             });
 
-            todoRepository.selectAll(new DbCallback<ArrayList<Todo>>() {
+            todoRepository.deleteById(1, new DbCallback<Todo>(){
                 @Override
-                public void onResult(DbResult<ArrayList<Todo>> result) {
+                public void onResult(DbResult<Todo> result) {
                     if(result.isSuccess()) {
-                        Log.d(TAG, result.getData().size()+" adet Todo listelendi.");
+                        Log.d(TAG, "deleteById - Başarılı: " + result.getData());
                     }
                     else{
-                        Exception e = ((DbResult.Error<ArrayList<Todo>>) result).getException();
-                        Log.e(TAG, "SELECT - Hata: " + e.getMessage());
+                        Exception e = ((DbResult.Error<Todo>) result).getException();
+                        Log.e(TAG, "deleteById - Hata: " + e.getMessage());
                     }
                 }
             });
@@ -5,15 +5,41 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.ProcessLifecycleOwner;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import lib.persistence.command.definition.CreateIndexCommand;
 import lib.persistence.command.manipulation.InsertCommand;
+import lib.persistence.command.query.CompiledQuery;
+import lib.persistence.migration.Migration;
+import lib.persistence.migration.SchemaMigrator;
 import lib.persistence.profile.Mapper;
 
 // Tekrarlanan kodları soyutlamak için yeni fonksiyonel arayüz
@@ -24,42 +50,699 @@ interface DbOperation<T> {
 
 public abstract class ADbContext extends SQLiteOpenHelper {
 
-    private static final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    // Boşta kalan bağlantının kapatılması gibi bakım işleri için ortak zamanlayıcı
+    private static final ScheduledThreadPoolExecutor maintenanceExecutor = createMaintenanceExecutor();
+    // Boşta kalan yazıcı/okuyucu thread'leri bu süre sonunda sonlanır; yeni işlem gelince yeniden oluşturulur.
+    private static final long WORKER_KEEP_ALIVE_MS = 30_000;
+    // Uygulama arka plana geçince boşaltılacak write-behind kuyrukları. Kuyruk başına gözlemci
+    // eklemek yerine süreç genelinde tek gözlemci kullanılır; kuyruklar zayıf referansla tutulduğu
+    // için repository'leri bırakıldığında toplanabilir.
+    private static final Set<WriteBehindQueue<?>> backgroundFlushQueues = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<WriteBehindQueue<?>, Boolean>()));
+    private static final AtomicBoolean backgroundObserverRegistered = new AtomicBoolean();
     private final Object lock = new Object();
 
+    private final DbOptions options;
+
+    // Yazma hattı: tüm yazmalar (WAL kapalıyken tüm işlemler) tek thread'de sıralı çalışır.
+    private final ExecutorService executorService;
+    // WAL modunda okumaları paralel çalıştıran sınırlı havuz; WAL kapalıyken null.
+    @Nullable
+    private final ExecutorService readerExecutor;
+    // Son checkpoint'ten beri yapılan yazma işlemi sayısı
+    private final AtomicLong writesSinceCheckpoint = new AtomicLong();
+    private final AtomicLong checkpointCount = new AtomicLong();
+
+    // Uzun ömürlü bağlantı durumu; connectionLock ile korunur.
+    private final Object connectionLock = new Object();
+    private SQLiteDatabase connection;
+    private int activeOperations;
+    private ScheduledFuture<?> idleCloseTask;
+    // WAL modunda periyodik checkpoint; bağlantı açıkken kurulur, kapanınca iptal edilir.
+    private ScheduledFuture<?> checkpointTask;
+    // İşlem sürerken close() çağrıldıysa true; bağlantı son işlem bittiğinde kapatılır.
+    private boolean closeRequested;
+
+    // Açık bağlantıya ait derlenmiş ifadeler; sadece yazma hattında kullanılır.
+    private final StatementCache statementCache;
+
+    // Tip başına paylaşılan nesne önbellekleri (IdentityMap)
+    private final ConcurrentHashMap<Class<?>, IdentityMap<?>> identityMaps = new ConcurrentHashMap<>();
+
+    // Select sonuçları için tablo sürümlü önbellek
+    private final QueryCache queryCache;
+    // Tablo değişikliklerini gözlemcilere toplu halde bildirir
+    private final InvalidationTracker invalidationTracker;
+    // Yazma hattında çalışan işlemin değiştirdiği tablolar; işlem bitince yayınlanır.
+    private final Set<String> pendingTableChanges = new HashSet<>();
+
+    // SQLite'ın ON CONFLICT DO UPDATE desteği; ilk upsert'te belirlenir.
+    private volatile Boolean upsertSupported;
+
+    // Annotation ile tanımlanan indeksler bu örnek için kontrol edildi mi
+    private volatile boolean indexesEnsured;
+
+    // Aynı öncelikteki işlemlerin gönderim sırasını korumak için artan sıra numarası
+    private final AtomicLong taskSequence = new AtomicLong();
+    // Öncelik sınıfı başına (DbPriority.ordinal) kuyruk bekleme istatistikleri
+    private final AtomicLong[] startedTaskCounts = newCounters();
+    private final AtomicLong[] queueWaitNanos = newCounters();
+    private final AtomicLong[] maxQueueWaitNanos = newCounters();
+    private final AtomicLong cancelledTaskCount = new AtomicLong();
+
+    // Etiketsiz runDbOperation çağrılarının metriklerde görüneceği işlem adı
+    private static final String UNTAGGED_OPERATION = "runDbOperation";
+    // DbOptions.metricsEnabled kapalıysa null
+    @Nullable
+    private final DbMetrics metrics;
+    // DbOptions.slowQueryThresholdMs 0 ise null
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+
+    private final AtomicLong openCount = new AtomicLong();
+    private final AtomicLong reuseCount = new AtomicLong();
+    private final AtomicLong idleCloseCount = new AtomicLong();
+
     public ADbContext(@Nullable Context context, @Nullable String name, @Nullable SQLiteDatabase.CursorFactory factory, int version) {
+        this(context, name, factory, version, DbOptions.defaults());
+    }
+
+    public ADbContext(@Nullable Context context, @Nullable String name, @Nullable SQLiteDatabase.CursorFactory factory, int version, @NonNull DbOptions options) {
         super(context, name, factory, version);
+        this.options = options;
+        this.statementCache = new StatementCache(options.statementCacheSize);
+        this.metrics = options.metricsEnabled ? new DbMetrics() : null;
+        this.slowQueryLog = options.slowQueryThresholdMs > 0 ? new SlowQueryLog(options.slowQueryThresholdMs) : null;
+        this.queryCache = new QueryCache(options.queryCacheMaxRows);
+        this.invalidationTracker = new InvalidationTracker(maintenanceExecutor, options.invalidationDebounceMs);
+        this.executorService = newPriorityExecutor(1, "DbWriter");
+        if (options.writeAheadLogging) {
+            // Bağlantı açılırken journal_mode=WAL uygulanır ve SQLiteDatabase okuma bağlantı havuzu kullanır.
+            setWriteAheadLoggingEnabled(true);
+            this.readerExecutor = newPriorityExecutor(options.readerPoolSize, "DbReader");
+        } else {
+            this.readerExecutor = null;
+        }
     }
 
     // Her metotta tekrarlanan boilerplate kodu yöneten genel yardımcı metot
-    protected <T> void runDbOperation(DbOperation<T> operation, DbCallback<T> callback, boolean isWritable) {
-        executorService.execute(() -> {
+    // isWritable bayrağı işlemin hangi hatta çalışacağını belirler.
+    protected <T> DbTaskHandle<T> runDbOperation(DbOperation<T> operation, DbCallback<T> callback, boolean isWritable) {
+        return runDbOperation(operation, callback, isWritable, DbPriority.NORMAL);
+    }
+
+    /**
+     * runDbOperation ile aynıdır; işlem verilen öncelikle kuyruğa alınır. Kuyruktan çıktığında
+     * iptal edilmiş olan işlem veritabanına dokunmadan iptal hatası ile tamamlanır.
+     */
+    protected <T> DbTaskHandle<T> runDbOperation(DbOperation<T> operation, DbCallback<T> callback, boolean isWritable, DbPriority priority) {
+        return runDbOperation(UNTAGGED_OPERATION, QueryCache.ALL_TABLES, operation, callback, isWritable, priority);
+    }
+
+    <T> DbTaskHandle<T> runDbOperation(String operationName, String tableName, DbOperation<T> operation, DbCallback<T> callback, boolean isWritable) {
+        return runDbOperation(operationName, tableName, operation, callback, isWritable, DbPriority.NORMAL);
+    }
+
+    /**
+     * İşlemi kuyruğa alır. operationName ve tableName, metrikler açıkken ölçümlerin hangi
+     * işlem/tablo çifti altında toplanacağını belirler.
+     */
+    <T> DbTaskHandle<T> runDbOperation(String operationName, String tableName, DbOperation<T> operation,
+                                       DbCallback<T> callback, boolean isWritable, DbPriority priority) {
+        final DbTaskHandle<T> handle = new DbTaskHandle<>(priority);
+        if (!isWritable && readerExecutor != null) {
+            // WAL modunda okuyucular yazıcıyı ve birbirlerini beklemez.
+            readerExecutor.execute(new PrioritizedTask(priority, taskSequence.incrementAndGet(), () -> {
+                if (startTask(handle, callback)) {
+                    completeTask(handle, callback, executeMeasured(operationName, tableName, operation, false, handle, -1));
+                }
+            }));
+            return handle;
+        }
+        executorService.execute(new PrioritizedTask(priority, taskSequence.incrementAndGet(), () -> {
+            if (!startTask(handle, callback)) return;
+            long lockRequestedAt = metrics != null ? System.nanoTime() : 0;
             synchronized (lock) {
+                long lockWaitNanos = metrics != null ? System.nanoTime() - lockRequestedAt : -1;
                 DbResult<T> result;
-                SQLiteDatabase db = null;
-                Cursor cursor = null;
-                try {
-                    db = isWritable ? getWritableDatabase() : getReadableDatabase();
-                    result = operation.execute(db);
-                } catch (Exception e) {
-                    result = new DbResult.Error<>(e, e.getMessage());
-                } finally {
-                    if (cursor != null && !cursor.isClosed()) {
-                        cursor.close();
+                if (isWritable) {
+                    // Paralel okumalar, yazma sürerken veya bittikten sonra eski satırları nesne önbelleğine eklemesin.
+                    advanceIdentityWrites(tableName);
+                    try {
+                        result = executeMeasured(operationName, tableName, operation, true, handle, lockWaitNanos);
+                        writesSinceCheckpoint.incrementAndGet();
+                        publishTableChanges();
+                    } finally {
+                        advanceIdentityWrites(tableName);
                     }
-                    // db.endTransaction(); gibi özel işlemler için metotlar kendi içlerinde yönetilmeli.
-                    if (db != null && db.isOpen()) {
-                        db.close();
+                } else {
+                    result = executeMeasured(operationName, tableName, operation, false, handle, lockWaitNanos);
+                }
+                completeTask(handle, callback, result);
+            }
+        }));
+        return handle;
+    }
+
+    // İptal edilmiş işlemi atlar; değilse kuyrukta bekleme süresini kaydeder.
+    private <T> boolean startTask(DbTaskHandle<T> handle, DbCallback<T> callback) {
+        if (!handle.tryStart()) {
+            cancelledTaskCount.incrementAndGet();
+            callback.onResult(DbCancellationSignal.cancelledResult());
+            return false;
+        }
+        int index = handle.getPriority().ordinal();
+        long waitNanos = handle.getQueueWaitNanos();
+        startedTaskCounts[index].incrementAndGet();
+        queueWaitNanos[index].addAndGet(waitNanos);
+        maxQueueWaitNanos[index].accumulateAndGet(waitNanos, Math::max);
+        return true;
+    }
+
+    // Metrikler kapalıyken doğrudan çalıştırır; açıkken süreyi thread'in ölçüm örneğine yazar.
+    private <T> DbResult<T> executeMeasured(String operationName, String tableName, DbOperation<T> operation,
+                                            boolean isWritable, DbTaskHandle<T> handle, long lockWaitNanos) {
+        if (metrics == null) {
+            return executeOperation(operation, isWritable);
+        }
+        OperationSample sample = metrics.begin(operationName, tableName, handle.getQueueWaitNanos(), lockWaitNanos);
+        long start = System.nanoTime();
+        DbResult<T> result = executeOperation(operation, isWritable);
+        sample.executeNanos = System.nanoTime() - start;
+        sample.success = result.isSuccess();
+        metrics.end(sample);
+        return result;
+    }
+
+    /**
+     * Bu thread'de çalışan işlemin ölçüm örneği. Metrikler kapalıysa veya işlem dışında null;
+     * çağıranlar ek ölçümü (satır sayısı, eşleme süresi) sadece null değilse yapar.
+     */
+    @Nullable
+    OperationSample currentSample() {
+        return metrics != null ? metrics.current() : null;
+    }
+
+    /** Yavaş sorgu kaydı açıksa sorgunun başlangıç zamanı; kapalıysa 0 ve zaman okunmaz. */
+    long queryStartNanos() {
+        return slowQueryLog != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Sorgunun cursor'ı tüketilip kapatıldıktan sonra, aynı bağlantıyla çağrılır. Süre
+     * DbOptions.slowQueryThresholdMs'i aştıysa sorgu yavaş sorgu kaydına eklenir.
+     */
+    void queryFinished(SQLiteDatabase db, String sql, @Nullable String[] args, long startNanos) {
+        if (slowQueryLog != null) {
+            slowQueryLog.onQueryFinished(db, sql, args, System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Parametreleri liste olarak verilen sorgu için queryFinished; metinler sadece kayıt açıksa üretilir. */
+    void queryFinished(SQLiteDatabase db, String sql, List<?> args, long startNanos) {
+        if (slowQueryLog != null) {
+            String[] textArgs = new String[args.size()];
+            for (int i = 0; i < textArgs.length; i++) {
+                textArgs[i] = Mapper.toSqlArgument(args.get(i));
+            }
+            slowQueryLog.onQueryFinished(db, sql, textArgs, System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Derlenmiş sorgu için queryFinished; parametre metinleri sadece kayıt açıksa üretilir. */
+    void queryFinished(SQLiteDatabase db, CompiledQuery<?> query, long startNanos) {
+        if (slowQueryLog != null) {
+            slowQueryLog.onQueryFinished(db, query.getQuery(), query.getWhereArgs(), System.nanoTime() - startNanos);
+        }
+    }
+
+    /** Metrikler açıksa çalışan işlemin okuduğu/yazdığı satır sayılarına ekler. */
+    void recordRows(long rowsRead, long rowsWritten) {
+        OperationSample sample = currentSample();
+        if (sample != null) {
+            sample.addRows(rowsRead, rowsWritten);
+        }
+    }
+
+    private static <T> void completeTask(DbTaskHandle<T> handle, DbCallback<T> callback, DbResult<T> result) {
+        try {
+            callback.onResult(result);
+        } finally {
+            handle.complete(result);
+        }
+    }
+
+    /**
+     * İşi yazma hattında tek bir transaction içinde çalıştırır. İş, DbTransaction üzerinden
+     * birden fazla repository'nin transaction'a bağlı görünümlerini kullanabilir; tüm değişiklikler
+     * tek commit ile yazılır. İş hata fırlatırsa hiçbir değişiklik kalmaz ve geri çağırma hata alır.
+     * Tablo değişiklikleri (sorgu önbelleği, gözlemciler) commit sonrası bir kez yayınlanır.
+     *
+     * @param work Transaction içinde çalışacak iş; veritabanı thread'inde senkron çalışır.
+     * @param callback İşin sonucunu commit sonrası alır.
+     */
+    public <R> DbTaskHandle<R> runInTransaction(TransactionWork<R> work, DbCallback<R> callback) {
+        return runInTransaction(work, DbPriority.NORMAL, callback);
+    }
+
+    /** runInTransaction ile aynıdır; iş verilen öncelikle yazma kuyruğuna alınır. */
+    public <R> DbTaskHandle<R> runInTransaction(TransactionWork<R> work, DbPriority priority, DbCallback<R> callback) {
+        return runDbOperation("runInTransaction", QueryCache.ALL_TABLES, (db) -> {
+            DbTransaction transaction = new DbTransaction(db);
+            db.beginTransaction();
+            try {
+                R result = work.run(transaction);
+                db.setTransactionSuccessful();
+                return new DbResult.Success<>(result);
+            } catch (Exception e) {
+                // Geri alınan değişiklikler nesne önbelleklerinde kalmasın
+                transaction.discardCachedEntities();
+                throw e;
+            } finally {
+                // Savepoint hatası dıştaki transaction'ı zaten bitirdiyse asıl hata gizlenmesin.
+                if (db.inTransaction()) db.endTransaction();
+                transaction.close();
+            }
+        }, callback, true, priority);
+    }
+
+    private <T> DbResult<T> executeOperation(DbOperation<T> operation, boolean isWritable) {
+        try {
+            // Bağlantı işlem sonunda kapatılmaz; boşta kalırsa zamanlayıcı kapatır.
+            SQLiteDatabase db = acquireConnection(isWritable);
+            try {
+                return operation.execute(db);
+            } finally {
+                releaseConnection();
+            }
+        } catch (Exception e) {
+            return new DbResult.Error<>(e, e.getMessage());
+        }
+    }
+
+    // --- TABLO DEĞİŞİKLİKLERİ ---
+
+    /**
+     * Çalışan yazma işleminin verilen tabloyu değiştirdiğini kaydeder. Sadece yazma hattındaki
+     * işlemler içinden çağrılmalıdır; değişiklik işlem bitince (commit sonrası) yayınlanır.
+     */
+    void markTableChanged(String tableName) {
+        pendingTableChanges.add(tableName);
+    }
+
+    // İşlem sırasında değişen tabloların sürümlerini artırır ve gözlemcilere bildirir. Hata durumunda
+    // da çalışır; parçalı commit'lerde (ör. insertAll) veri kısmen değişmiş olabilir.
+    private void publishTableChanges() {
+        if (pendingTableChanges.isEmpty()) return;
+        for (String tableName : pendingTableChanges) {
+            queryCache.bumpVersion(tableName);
+        }
+        invalidationTracker.notifyTablesChanged(pendingTableChanges);
+        pendingTableChanges.clear();
+    }
+
+    // --- NESNE ÖNBELLEKLERİ ---
+
+    /**
+     * Tipin paylaşılan nesne önbelleğini döndürür, yoksa verilen kapasiteyle oluşturur. Aynı tipin
+     * tüm repository örnekleri aynı önbelleği kullanır; böylece bir örnek üzerinden yapılan silme
+     * veya güncelleme diğerlerinin önbelleğinde eski kayıt bırakmaz. Kapasiteyi ilk oluşturan belirler.
+     */
+    @SuppressWarnings("unchecked")
+    <T> IdentityMap<T> identityMapFor(Class<T> type, int capacity) {
+        return (IdentityMap<T>) identityMaps.computeIfAbsent(type, t -> new IdentityMap<>(Mapper.getTableName(t), capacity));
+    }
+
+    // Tabloya (ALL_TABLES ise tüm tablolara) ait nesne önbelleklerinin yazma sırasını artırır.
+    private void advanceIdentityWrites(String tableName) {
+        if (identityMaps.isEmpty()) return;
+        boolean allTables = QueryCache.ALL_TABLES.equals(tableName);
+        for (IdentityMap<?> identityMap : identityMaps.values()) {
+            if (allTables || identityMap.getTableName().equalsIgnoreCase(tableName)) {
+                identityMap.advanceWriteSequence();
+            }
+        }
+    }
+
+    // --- WAL CHECKPOINT ---
+
+    /**
+     * Son checkpoint'ten beri yazma olduysa yazma hattına pasif bir checkpoint ekler.
+     * PASSIVE mod okuyucuları ve yazıcıyı bloklamaz; bitiremediği sayfaları sonraki tura bırakır.
+     */
+    private void checkpointIfNeeded() {
+        if (writesSinceCheckpoint.get() == 0) return;
+        synchronized (connectionLock) {
+            // Bağlantı kapalıysa SQLite kapanışta zaten checkpoint yapmıştır.
+            if (connection == null) return;
+        }
+        executorService.execute(new PrioritizedTask(DbPriority.BACKGROUND, taskSequence.incrementAndGet(), () -> {
+            synchronized (lock) {
+                writesSinceCheckpoint.set(0);
+                executeOperation(db -> {
+                    try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(PASSIVE)", null)) {
+                        cursor.moveToFirst();
                     }
+                    checkpointCount.incrementAndGet();
+                    return new DbResult.Success<>(null);
+                }, true);
+            }
+        }));
+    }
+
+    // --- BAĞLANTI YAŞAM DÖNGÜSÜ ---
+
+    /**
+     * Açık bağlantıyı döndürür, yoksa açar. SQLiteOpenHelper açık bir bağlantı varken
+     * aynı örneği döndürdüğü için sayfa önbelleği işlemler arasında korunur.
+     */
+    private SQLiteDatabase acquireConnection(boolean isWritable) {
+        synchronized (connectionLock) {
+            cancelIdleClose();
+            SQLiteDatabase db = isWritable ? getWritableDatabase() : getReadableDatabase();
+            if (db == connection) {
+                reuseCount.incrementAndGet();
+            } else {
+                statementCache.clear();
+                connection = db;
+                openCount.incrementAndGet();
+                scheduleCheckpoints();
+            }
+            activeOperations++;
+            return db;
+        }
+    }
+
+    private void releaseConnection() {
+        synchronized (connectionLock) {
+            activeOperations--;
+            if (activeOperations == 0) {
+                if (closeRequested) {
+                    closeConnection();
+                } else {
+                    scheduleIdleClose();
                 }
-                callback.onResult(result);
             }
-        });
+        }
+    }
+
+    private void scheduleIdleClose() {
+        if (options.idleTimeoutMs <= 0) return;
+        idleCloseTask = maintenanceExecutor.schedule(this::closeIfIdle, options.idleTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Zamanlanmış görev context'e referans tuttuğu için sadece bağlantı açıkken kurulur.
+    private void scheduleCheckpoints() {
+        if (readerExecutor == null || options.checkpointIntervalMs <= 0 || checkpointTask != null) return;
+        checkpointTask = maintenanceExecutor.scheduleWithFixedDelay(this::checkpointIfNeeded,
+                options.checkpointIntervalMs, options.checkpointIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelIdleClose() {
+        if (idleCloseTask != null) {
+            idleCloseTask.cancel(false);
+            idleCloseTask = null;
+        }
+    }
+
+    private void closeIfIdle() {
+        synchronized (connectionLock) {
+            idleCloseTask = null;
+            if (activeOperations == 0 && connection != null) {
+                closeConnection();
+                idleCloseCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Açık bağlantıyı kapatır. Çalışan işlem yoksa hemen, varsa son işlem bittiğinde kapatılır;
+     * böylece kullanımdaki derlenmiş ifadeler ve bağlantı işlemin ortasında kapanmaz.
+     * WAL checkpoint zamanlayıcısı da iptal edilir. Sonraki işlem bağlantıyı yeniden açar.
+     */
+    @Override
+    public void close() {
+        synchronized (connectionLock) {
+            cancelIdleClose();
+            if (activeOperations > 0) {
+                closeRequested = true;
+                return;
+            }
+            closeConnection();
+        }
+    }
+
+    // connectionLock tutulurken ve çalışan işlem yokken çağrılır.
+    private void closeConnection() {
+        closeRequested = false;
+        // SQLite kapanışta checkpoint yapar; bağlantı yeniden açılınca zamanlayıcı tekrar kurulur.
+        if (checkpointTask != null) {
+            checkpointTask.cancel(false);
+            checkpointTask = null;
+        }
+        statementCache.clear();
+        connection = null;
+        super.close();
+    }
+
+    /**
+     * Bu context'in yönettiği model tipleri. Alt sınıf döndürdüğünde, tiplerin @DbIndex /
+     * @DbUniqueIndex ile tanımlanan eksik indeksleri bağlantı açılışında oluşturulur.
+     */
+    protected Class<?>[] getEntityTypes() {
+        return new Class<?>[0];
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        if (!indexesEnsured && !db.isReadOnly()) {
+            ensureIndexes(db);
+            indexesEnsured = true;
+        }
+    }
+
+    /**
+     * getEntityTypes() tiplerinin indekslerini CREATE INDEX IF NOT EXISTS ile oluşturur.
+     * Mevcut indeksler atlandığı için her açılışta güvenle çalıştırılabilir; yeni eklenen bir
+     * annotation, sürüm artırmadan mevcut veritabanlarına uygulanır.
+     */
+    protected void ensureIndexes(SQLiteDatabase db) {
+        for (Class<?> type : getEntityTypes()) {
+            for (CreateIndexCommand command : CreateIndexCommand.buildAll(type)) {
+                db.execSQL(command.getQuery());
+            }
+        }
+    }
+
+    /** Sürüm aralıklarına özel, elle yazılmış geçiş adımları. Varsayılan olarak yoktur. */
+    protected List<Migration> getMigrations() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Şemayı tabloları silmeden yükseltir: getMigrations() adımlarını çalıştırır, ardından
+     * getEntityTypes() tiplerinin tablolarını model tanımıyla eşitler. onUpgrade içinden çağrılır.
+     */
+    protected void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+        new SchemaMigrator(Arrays.asList(getEntityTypes()), getMigrations()).migrate(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Bağlantının SQLite sürümü INSERT ... ON CONFLICT DO UPDATE (3.24+, Android API 30+)
+     * destekliyor mu. Sonuç ilk çağrıda belirlenir ve saklanır.
+     */
+    boolean supportsUpsert(SQLiteDatabase db) {
+        Boolean supported = upsertSupported;
+        if (supported == null) {
+            supported = false;
+            try (Cursor cursor = db.rawQuery("SELECT sqlite_version()", null)) {
+                if (cursor.moveToFirst()) {
+                    String[] parts = cursor.getString(0).split("\\.");
+                    int major = Integer.parseInt(parts[0]);
+                    int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+                    supported = major > 3 || (major == 3 && minor >= 24);
+                }
+            } catch (RuntimeException e) {
+                // Sürüm okunamazsa güvenli yol (UPDATE + INSERT) kullanılır.
+            }
+            upsertSupported = supported;
+        }
+        return supported;
+    }
+
+    /**
+     * SQL metnine göre önbellekten derlenmiş bir ifade döndürür.
+     * Sadece yazma hattında çalışan işlemler içinden çağrılmalıdır; ifade kapatılmamalıdır.
+     */
+    SQLiteStatement compileStatement(SQLiteDatabase db, String sql) {
+        return statementCache.acquire(db, sql);
+    }
+
+    /** Derlenmiş ifade önbelleğinin isabet/kaçırma sayaçları. */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    /** İşlem başına süre ve satır metrikleri; DbOptions.metricsEnabled kapalıysa null. */
+    @Nullable
+    public DbMetrics getMetrics() {
+        return metrics;
+    }
+
+    /** Eşiği aşan sorgular ve planları; DbOptions.slowQueryThresholdMs 0 ise null. */
+    @Nullable
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /** Select sonuç önbelleği; tablo bazında isabet oranları için kullanılabilir. */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /** Tablo değişikliklerini dinlemek için kullanılır. */
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidationTracker;
+    }
+
+    /** Bağlantının kaç kez (yeniden) açıldığı. */
+    public long getOpenCount() {
+        return openCount.get();
+    }
+
+    /** Açık bağlantının kaç işlemde yeniden kullanıldığı. */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /** Boşta kalma süresi dolduğu için kaç kez kapatıldığı. */
+    public long getIdleCloseCount() {
+        return idleCloseCount.get();
+    }
+
+    /** Arka planda çalıştırılan WAL checkpoint sayısı. */
+    public long getCheckpointCount() {
+        return checkpointCount.get();
+    }
+
+    /** Verilen öncelikte çalışmaya başlayan işlemlerin kuyrukta ortalama bekleme süresi (ms). */
+    public double getAverageQueueWaitMs(DbPriority priority) {
+        long count = startedTaskCounts[priority.ordinal()].get();
+        return count == 0 ? 0 : queueWaitNanos[priority.ordinal()].get() / (count * 1_000_000.0);
+    }
+
+    /** Verilen öncelikte bir işlemin kuyrukta beklediği en uzun süre (ms). */
+    public long getMaxQueueWaitMs(DbPriority priority) {
+        return TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos[priority.ordinal()].get());
+    }
+
+    /** Verilen öncelikte çalışmaya başlayan işlem sayısı. */
+    public long getStartedTaskCount(DbPriority priority) {
+        return startedTaskCounts[priority.ordinal()].get();
+    }
+
+    /** Kuyruktan çıktığında iptal edilmiş olduğu için veritabanına dokunmadan atlanan işlem sayısı. */
+    public long getCancelledTaskCount() {
+        return cancelledTaskCount.get();
+    }
+
+    protected DbOptions getOptions() {
+        return options;
+    }
+
+    // Zamanlanmış işler (ör. write-behind kuyruğunun süre dolunca boşaltılması) için ortak zamanlayıcı
+    ScheduledExecutorService getMaintenanceExecutor() {
+        return maintenanceExecutor;
+    }
+
+    /** Kuyruğu, uygulama arka plana geçtiğinde (ProcessLifecycleOwner ON_STOP) boşaltılacaklara ekler. */
+    static void flushOnBackground(WriteBehindQueue<?> queue) {
+        backgroundFlushQueues.add(queue);
+        if (backgroundObserverRegistered.compareAndSet(false, true)) {
+            // Gözlemci ana thread'de eklenmelidir; kuyruk herhangi bir thread'de oluşturulabilir.
+            new Handler(Looper.getMainLooper()).post(() -> ProcessLifecycleOwner.get().getLifecycle().addObserver(
+                    (LifecycleEventObserver) (source, event) -> {
+                        if (event == Lifecycle.Event.ON_STOP) {
+                            flushBackgroundQueues();
+                        }
+                    }));
+        }
+    }
+
+    private static void flushBackgroundQueues() {
+        List<WriteBehindQueue<?>> queues;
+        synchronized (backgroundFlushQueues) {
+            queues = new ArrayList<>(backgroundFlushQueues);
+        }
+        for (WriteBehindQueue<?> queue : queues) {
+            queue.flush();
+        }
+    }
+
+    /**
+     * Kuyruğu öncelik sırasına göre boşaltan sabit boyutlu havuz. Sadece PrioritizedTask kabul eder;
+     * submit() Comparable olmayan bir sarmalayıcı ürettiği için execute() kullanılmalıdır.
+     * Havuzlar context örneğine aittir ve close() sonrası da kullanılabilir kalır; bu yüzden
+     * kapatılmazlar, boşta kalan thread'ler WORKER_KEEP_ALIVE_MS sonunda sonlanır. Böylece
+     * kullanılmayan context'ler (ör. testlerde her seferinde oluşturulanlar) thread bırakmaz.
+     */
+    private static ExecutorService newPriorityExecutor(int threads, String name) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, WORKER_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<Runnable>(), namedThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static AtomicLong[] newCounters() {
+        AtomicLong[] counters = new AtomicLong[DbPriority.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicLong();
+        }
+        return counters;
+    }
+
+    // Önce önceliğe, aynı öncelikte gönderim sırasına göre sıralanan kuyruk öğesi.
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final DbPriority priority;
+        private final long sequence;
+        private final Runnable body;
+
+        PrioritizedTask(DbPriority priority, long sequence, Runnable body) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor createMaintenanceExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, namedThreadFactory("DbMaintenance"));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
     }
 
     // Bu metot, Repository'ler tarafından kullanılacak yeni insert metodu
     public <T> void internalInsert(Object object, DbCallback<T> callback) {
-        runDbOperation((db) -> {
+        runDbOperation("internalInsert", QueryCache.ALL_TABLES, (db) -> {
             InsertCommand command = InsertCommand.build(object);
             long last_insert_rowid = db.insert(command.getTableName(), null, command.getContentValues());
 
@@ -67,6 +750,7 @@ public abstract class ADbContext extends SQLiteOpenHelper {
                 throw new Exception("Kayıt eklenirken bir hata oluştu.");
             }
             Mapper.setId(object, last_insert_rowid);
+            markTableChanged(command.getTableName());
             return new DbResult.Success<>((T) object);
         }, callback, true);
     }
@@ -75,15 +759,18 @@ public abstract class ADbContext extends SQLiteOpenHelper {
 
     // Ham SQL sorgularını çalıştırmak için mevcut metotlar (kaldırılmadı)
     public void execSql(String sql, DbCallback<Void> callback) {
-        runDbOperation((db) -> {
+        runDbOperation("execSql", QueryCache.ALL_TABLES, (db) -> {
+            // Hangi tablonun değiştiği bilinmediği için tüm önbellek sürümleri geçersiz kılınır.
+            markTableChanged(QueryCache.ALL_TABLES);
             db.execSQL(sql);
             return new DbResult.Success<>(null);
         }, callback, true);
     }
 
     public void rawQuery(String sql, String[] selectionArgs, DbCallback<ArrayList<HashMap<String, String>>> callback) {
-        runDbOperation((db) -> {
+        runDbOperation("rawQuery", QueryCache.ALL_TABLES, (db) -> {
             ArrayList<HashMap<String, String>> rows = new ArrayList<>();
+            long queryStart = queryStartNanos();
             try (Cursor cursor = db.rawQuery(sql, selectionArgs)) {
                 if (cursor.moveToFirst()) {
                     String[] columnNames = cursor.getColumnNames();
@@ -98,8 +785,10 @@ public abstract class ADbContext extends SQLiteOpenHelper {
                         rows.add(row);
                     } while (cursor.moveToNext());
                 }
-                return new DbResult.Success<>(rows);
             }
+            queryFinished(db, sql, selectionArgs, queryStart);
+            recordRows(rows.size(), 0);
+            return new DbResult.Success<>(rows);
         }, callback, false);
     }
 }
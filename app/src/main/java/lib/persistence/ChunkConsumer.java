@@ -0,0 +1,17 @@
+package lib.persistence;
+
+import java.util.List;
+
+/**
+ * Parçalı (chunked) sorgularda her satır grubu hazır olduğunda çağrılır.
+ * Liste tüketiciye aittir; veritabanı katmanı tarafından yeniden kullanılmaz.
+ *
+ * @param <T> Satırların eşlendiği model tipi.
+ */
+@FunctionalInterface
+public interface ChunkConsumer<T> {
+    /**
+     * @return Okumaya devam etmek için true, taramayı erken bitirmek için false.
+     */
+    boolean onChunk(List<T> chunk) throws Exception;
+}
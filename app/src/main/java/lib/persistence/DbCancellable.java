@@ -0,0 +1,9 @@
+package lib.persistence;
+
+/**
+ * Başlatılmış bir veritabanı işlemini iptal etmek için kullanılan tutamaç.
+ */
+public interface DbCancellable {
+    void cancel();
+    boolean isCancelled();
+}
@@ -0,0 +1,44 @@
+package lib.persistence;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * DbCancellable tutamaçlarını (ör. gözlenen sorgular) yaşam döngüsüne bağlayan yardımcılar.
+ * Ana thread'den çağrılmalıdır.
+ */
+public final class DbCancellables {
+    private DbCancellables(){}
+
+    /** owner'ın yaşam döngüsünde event geldiğinde iptal eder. */
+    @NonNull
+    public static <C extends DbCancellable> C bindUntil(@NonNull LifecycleOwner owner,
+                                                        @NonNull final C c,
+                                                        @NonNull final Lifecycle.Event event) {
+        final Lifecycle lifecycle = owner.getLifecycle();
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event e) {
+                if (e == event || e == Lifecycle.Event.ON_DESTROY) {
+                    c.cancel();
+                    lifecycle.removeObserver(this);
+                }
+            }
+        });
+        return c;
+    }
+
+    /** Activity/Fragment yok edilirken iptal. */
+    @NonNull
+    public static <C extends DbCancellable> C bindToDestroy(@NonNull LifecycleOwner owner, @NonNull C c) {
+        return bindUntil(owner, c, Lifecycle.Event.ON_DESTROY);
+    }
+
+    /** Activity'lerde onStop'ta iptal etmek için. */
+    @NonNull
+    public static <C extends DbCancellable> C bindToStop(@NonNull LifecycleOwner owner, @NonNull C c) {
+        return bindUntil(owner, c, Lifecycle.Event.ON_STOP);
+    }
+}
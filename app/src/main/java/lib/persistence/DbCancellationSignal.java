@@ -0,0 +1,36 @@
+package lib.persistence;
+
+import android.os.CancellationSignal;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * DbCancellable'ın varsayılan uygulaması. İptal edildiğinde, sorgu çalışıyorsa
+ * SQLite tarafında da durdurulması için Android CancellationSignal'ı tetikler.
+ */
+public final class DbCancellationSignal implements DbCancellable {
+
+    private final CancellationSignal cancellationSignal = new CancellationSignal();
+    private volatile boolean cancelled;
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        cancellationSignal.cancel();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** db.rawQuery(sql, args, signal) çağrılarına verilecek Android sinyali. */
+    public CancellationSignal getCancellationSignal() {
+        return cancellationSignal;
+    }
+
+    /** İptal edilmiş bir işlem için standart hata sonucu. */
+    static <T> DbResult<T> cancelledResult() {
+        return new DbResult.Error<>(new CancellationException("İşlem iptal edildi."), "İşlem iptal edildi.");
+    }
+}
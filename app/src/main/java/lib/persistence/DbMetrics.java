@@ -0,0 +1,97 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * İşlem tipi ve tablo bazında süre histogramları ile satır sayaçlarını tutan kayıt.
+ * DbOptions.metricsEnabled açıkken ADbContext tarafından doldurulur; kapalıyken oluşturulmaz
+ * ve işlemler ölçüm için zaman okumaz.
+ *
+ * Kayıt sırasında nesne oluşturulmaz: ölçümler thread başına yeniden kullanılan bir örnekte
+ * biriktirilir ve işlem bitince ilgili OperationStats'a aktarılır. Değerler
+ * {@link #getStats(String, String)} ile okunabilir veya {@link #dump()} ile metin olarak alınabilir.
+ */
+public final class DbMetrics {
+
+    // işlem -> tablo -> istatistik; anahtar birleştirme için metin oluşturulmaz
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, OperationStats>> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<OperationSample> samples = new ThreadLocal<OperationSample>() {
+        @Override
+        protected OperationSample initialValue() {
+            return new OperationSample();
+        }
+    };
+
+    DbMetrics() {
+    }
+
+    OperationSample begin(String operation, String table, long queueWaitNanos, long lockWaitNanos) {
+        OperationSample sample = samples.get();
+        sample.begin(operation, table, queueWaitNanos, lockWaitNanos);
+        return sample;
+    }
+
+    /** Bu thread'de çalışan işlemin örneği; işlem dışında null. */
+    @Nullable
+    OperationSample current() {
+        OperationSample sample = samples.get();
+        return sample.active ? sample : null;
+    }
+
+    void end(OperationSample sample) {
+        sample.active = false;
+        statsFor(sample.operation, sample.table).record(sample);
+    }
+
+    private OperationStats statsFor(String operation, String table) {
+        ConcurrentHashMap<String, OperationStats> byTable = stats.get(operation);
+        if (byTable == null) {
+            ConcurrentHashMap<String, OperationStats> created = new ConcurrentHashMap<>();
+            byTable = stats.putIfAbsent(operation, created);
+            if (byTable == null) byTable = created;
+        }
+        OperationStats operationStats = byTable.get(table);
+        if (operationStats == null) {
+            OperationStats created = new OperationStats(operation, table);
+            operationStats = byTable.putIfAbsent(table, created);
+            if (operationStats == null) operationStats = created;
+        }
+        return operationStats;
+    }
+
+    /** İşlem ve tablo için biriken metrikler; henüz kayıt yoksa null. */
+    @Nullable
+    public OperationStats getStats(String operation, String table) {
+        ConcurrentHashMap<String, OperationStats> byTable = stats.get(operation);
+        return byTable != null ? byTable.get(table) : null;
+    }
+
+    public List<OperationStats> getAllStats() {
+        List<OperationStats> all = new ArrayList<>();
+        for (ConcurrentHashMap<String, OperationStats> byTable : stats.values()) {
+            all.addAll(byTable.values());
+        }
+        return all;
+    }
+
+    /** Tüm sayaçları ve histogramları sıfırlar. */
+    public void reset() {
+        for (OperationStats operationStats : getAllStats()) {
+            operationStats.reset();
+        }
+    }
+
+    /** Tüm metrikleri okunabilir metin olarak döndürür (ör. logcat'e yazmak için). */
+    public String dump() {
+        StringBuilder builder = new StringBuilder("DbMetrics\n");
+        for (OperationStats operationStats : getAllStats()) {
+            if (operationStats.getCount() == 0) continue;
+            builder.append(operationStats).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,127 @@
+package lib.persistence;
+
+/**
+ * ADbContext davranışını ayarlamak için kullanılan seçenekler.
+ * Varsayılan değerler Builder içinde tanımlıdır.
+ */
+public class DbOptions {
+
+    /**
+     * Bağlantı son işlemden sonra bu süre boyunca kullanılmazsa kapatılır (ms).
+     * 0 veya negatif değer: bağlantı sadece ADbContext.close() ile kapanır.
+     */
+    public final long idleTimeoutMs;
+
+    /**
+     * WAL (write-ahead logging) modu. Açıkken yazma işlemleri tek yazıcı hattında sıralı,
+     * okuma işlemleri ise okuyucu havuzunda paralel çalışır.
+     */
+    public final boolean writeAheadLogging;
+
+    /** WAL modunda paralel okuma yapan iş parçacığı sayısı. */
+    public final int readerPoolSize;
+
+    /** WAL modunda arka planda checkpoint denemeleri arasındaki süre (ms); sadece bağlantı açıkken çalışır. */
+    public final long checkpointIntervalMs;
+
+    /** insertAll'ın tek bir transaction içinde yazdığı en fazla satır sayısı. */
+    public final int bulkInsertChunkSize;
+
+    /** Bağlantı başına saklanan derlenmiş ifade (SQLiteStatement) sayısı. */
+    public final int statementCacheSize;
+
+    /** Parçalı akış sorgularında tüketiciye aynı anda teslim edilmeyi bekleyen en fazla parça sayısı. */
+    public final int streamMaxInFlightChunks;
+
+    /**
+     * Model tipi başına birincil anahtara göre tutulan nesne önbelleğinin (IdentityMap) kapasitesi.
+     * 0: devre dışı. Repository kendi kapasitesini yapıcıda ayrıca belirtebilir; önbellek tipin tüm
+     * repository örnekleri arasında paylaşıldığı için ilk oluşturanın kapasitesi geçerlidir.
+     */
+    public final int identityMapSize;
+
+    /**
+     * Sorgu sonuç önbelleğinde (QueryCache) tutulan toplam satır sayısı sınırı.
+     * 0: devre dışı. Bu sınırdan büyük sonuçlar önbelleğe alınmaz.
+     */
+    public final int queryCacheMaxRows;
+
+    /** Tablo değişikliği bildirimlerinin gözlemcilere iletilmeden önce biriktirildiği süre (ms). */
+    public final long invalidationDebounceMs;
+
+    /** Write-behind kuyruğunun beklemeden boşaltıldığı biriken işlem sayısı. */
+    public final int writeBehindMaxBatch;
+
+    /** Write-behind kuyruğundaki ilk işlemin yazılmadan önce bekleyebileceği en uzun süre (ms). */
+    public final long writeBehindMaxDelayMs;
+
+    /** Açıkken uygulama arka plana geçtiğinde write-behind kuyrukları boşaltılır. */
+    public final boolean writeBehindFlushOnBackground;
+
+    /** Açıkken işlem başına süreler ve satır sayıları ADbContext.getMetrics() kaydına yazılır. */
+    public final boolean metricsEnabled;
+
+    /**
+     * Bu süreyi aşan sorgular SQL, parametre sayısı, süre ve EXPLAIN QUERY PLAN çıktısıyla
+     * ADbContext.getSlowQueryLog() kaydına yazılır (ms). 0: devre dışı.
+     */
+    public final long slowQueryThresholdMs;
+
+    private DbOptions(Builder b) {
+        this.idleTimeoutMs = b.idleTimeoutMs;
+        this.writeAheadLogging = b.writeAheadLogging;
+        this.readerPoolSize = b.readerPoolSize;
+        this.checkpointIntervalMs = b.checkpointIntervalMs;
+        this.bulkInsertChunkSize = b.bulkInsertChunkSize;
+        this.statementCacheSize = b.statementCacheSize;
+        this.streamMaxInFlightChunks = b.streamMaxInFlightChunks;
+        this.identityMapSize = b.identityMapSize;
+        this.queryCacheMaxRows = b.queryCacheMaxRows;
+        this.invalidationDebounceMs = b.invalidationDebounceMs;
+        this.writeBehindMaxBatch = b.writeBehindMaxBatch;
+        this.writeBehindMaxDelayMs = b.writeBehindMaxDelayMs;
+        this.writeBehindFlushOnBackground = b.writeBehindFlushOnBackground;
+        this.metricsEnabled = b.metricsEnabled;
+        this.slowQueryThresholdMs = b.slowQueryThresholdMs;
+    }
+
+    public static DbOptions defaults() {
+        return new Builder().build();
+    }
+
+    public static class Builder {
+        private long idleTimeoutMs = 30_000;
+        private boolean writeAheadLogging = false;
+        private int readerPoolSize = 3;
+        private long checkpointIntervalMs = 60_000;
+        private int bulkInsertChunkSize = 500;
+        private int statementCacheSize = 16;
+        private int streamMaxInFlightChunks = 2;
+        private int identityMapSize = 0;
+        private int queryCacheMaxRows = 0;
+        private long invalidationDebounceMs = 50;
+        private int writeBehindMaxBatch = 100;
+        private long writeBehindMaxDelayMs = 1_000;
+        private boolean writeBehindFlushOnBackground = true;
+        private boolean metricsEnabled = false;
+        private long slowQueryThresholdMs = 0;
+
+        public Builder idleTimeoutMs(long v){ this.idleTimeoutMs = v; return this; }
+        public Builder writeAheadLogging(boolean v){ this.writeAheadLogging = v; return this; }
+        public Builder readerPoolSize(int v){ this.readerPoolSize = Math.max(1, v); return this; }
+        public Builder checkpointIntervalMs(long v){ this.checkpointIntervalMs = v; return this; }
+        public Builder bulkInsertChunkSize(int v){ this.bulkInsertChunkSize = Math.max(1, v); return this; }
+        public Builder statementCacheSize(int v){ this.statementCacheSize = Math.max(1, v); return this; }
+        public Builder streamMaxInFlightChunks(int v){ this.streamMaxInFlightChunks = Math.max(1, v); return this; }
+        public Builder identityMapSize(int v){ this.identityMapSize = Math.max(0, v); return this; }
+        public Builder queryCacheMaxRows(int v){ this.queryCacheMaxRows = Math.max(0, v); return this; }
+        public Builder invalidationDebounceMs(long v){ this.invalidationDebounceMs = Math.max(0, v); return this; }
+        public Builder writeBehindMaxBatch(int v){ this.writeBehindMaxBatch = Math.max(1, v); return this; }
+        public Builder writeBehindMaxDelayMs(long v){ this.writeBehindMaxDelayMs = Math.max(0, v); return this; }
+        public Builder writeBehindFlushOnBackground(boolean v){ this.writeBehindFlushOnBackground = v; return this; }
+        public Builder metricsEnabled(boolean v){ this.metricsEnabled = v; return this; }
+        public Builder slowQueryThresholdMs(long v){ this.slowQueryThresholdMs = Math.max(0, v); return this; }
+
+        public DbOptions build(){ return new DbOptions(this); }
+    }
+}
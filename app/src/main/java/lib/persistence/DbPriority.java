@@ -0,0 +1,18 @@
+package lib.persistence;
+
+/**
+ * Veritabanı işlemlerinin kuyruktaki önceliği. Yüksek öncelikli işlem, kuyrukta bekleyen düşük
+ * öncelikli işlemlerden önce başlar; çalışmakta olan işlem kesilmez. Aynı öncelikteki işlemler
+ * gönderildikleri sırayla çalışır.
+ *
+ * Yazma hattında farklı öncelikler gönderim sırasını değiştirebilir; birbirine bağlı yazmalar
+ * aynı öncelikle gönderilmelidir.
+ */
+public enum DbPriority {
+    /** Kullanıcının beklediği işlemler (ör. açılan ekranın kaydını okumak). */
+    INTERACTIVE,
+    /** Varsayılan öncelik. */
+    NORMAL,
+    /** Toplu yükleme, senkronizasyon ve bakım işleri. */
+    BACKGROUND
+}
@@ -0,0 +1,103 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kuyruğa alınmış bir veritabanı işleminin tutamacı. İşlem başlamadan iptal edilebilir ve
+ * sonucu geri çağırmaya ek olarak bir CompletableFuture üzerinden de alınabilir.
+ *
+ * İptal, sadece işlem henüz veritabanına dokunmadıysa etkilidir: kuyruktan çıktığında atlanır,
+ * future ve geri çağırma iptal hatası ile tamamlanır. Çalışmaya başlamış işlem tamamlanır;
+ * akış sorgularında (selectStream/selectChunked) ise bağlı DbCancellationSignal da tetiklenir ve
+ * çalışan tarama SQLite tarafında dahil durdurulur.
+ *
+ * @param <T> İşlemin sonuç tipi.
+ */
+public final class DbTaskHandle<T> implements DbCancellable {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int CANCELLED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private final CompletableFuture<DbResult<T>> future = new CompletableFuture<>();
+    private final DbPriority priority;
+    private final long submittedAtNanos = System.nanoTime();
+    private volatile long queueWaitNanos = -1;
+    // Çalışırken de iptal edilebilen işlemlerin sinyali; yoksa null.
+    @Nullable
+    private volatile DbCancellationSignal signal;
+
+    DbTaskHandle(DbPriority priority) {
+        this.priority = priority;
+    }
+
+    @Override
+    public void cancel() {
+        DbCancellationSignal current = signal;
+        if (current != null) {
+            current.cancel();
+        }
+        if (state.compareAndSet(PENDING, CANCELLED)) {
+            future.complete(DbCancellationSignal.cancelledResult());
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        DbCancellationSignal current = signal;
+        return state.get() == CANCELLED || (current != null && current.isCancelled());
+    }
+
+    /** İşlem kuyruktan çıkıp çalışmaya başladıysa true. */
+    public boolean isStarted() {
+        return state.get() == RUNNING;
+    }
+
+    /**
+     * İşlemin sonucu. Geri çağırma çalıştıktan sonra tamamlanır; iptalde hemen tamamlanır.
+     * future.cancel() işlemi durdurmaz, bunun için {@link #cancel()} kullanılmalıdır.
+     */
+    public CompletableFuture<DbResult<T>> getFuture() {
+        return future;
+    }
+
+    public DbPriority getPriority() {
+        return priority;
+    }
+
+    /** İşlemin kuyrukta beklediği süre (ms); henüz başlamadıysa -1. */
+    public long getQueueWaitMs() {
+        long wait = queueWaitNanos;
+        return wait < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(wait);
+    }
+
+    /**
+     * Veritabanı thread'inde, işlem çalışmadan hemen önce çağrılır.
+     *
+     * @return İşlem iptal edildiyse false; bu durumda veritabanına dokunulmamalıdır.
+     */
+    boolean tryStart() {
+        if (!state.compareAndSet(PENDING, RUNNING)) return false;
+        queueWaitNanos = System.nanoTime() - submittedAtNanos;
+        return true;
+    }
+
+    /** cancel() çağrıldığında, işlem çalışıyor olsa bile tetiklenecek sinyali bağlar. */
+    DbTaskHandle<T> withSignal(DbCancellationSignal signal) {
+        this.signal = signal;
+        return this;
+    }
+
+    long getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    void complete(DbResult<T> result) {
+        future.complete(result);
+    }
+}
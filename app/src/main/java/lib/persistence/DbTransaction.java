@@ -0,0 +1,104 @@
+package lib.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * ADbContext.runInTransaction içinde açık olan transaction. Repository'lerin bu transaction'a
+ * bağlı, senkron çalışan görünümlerini verir ve iç içe savepoint'leri yönetir.
+ *
+ * Sadece iş biriminin çalıştığı veritabanı thread'inden ve iş birimi dönene kadar kullanılabilir.
+ */
+public final class DbTransaction {
+
+    // SQLiteDatabase ifadenin ilk harflerine bakarak "ROLLBACK" ile başlayanları transaction'ı bitirme
+    // olarak yorumlar. API 28 ve sonrası "ROLLBACK TO" içeren ifadeyi bundan açıkça hariç tutar; daha
+    // eski sürümler için çerçevenin kendi uyarısında önerdiği ';' ön eki kullanılır. Bu sürümlerin
+    // davranışı artık değişmediği için ön ek sadece orada uygulanır.
+    private static final String ROLLBACK_TO = Build.VERSION.SDK_INT >= Build.VERSION_CODES.P ? "ROLLBACK TO " : ";ROLLBACK TO ";
+
+    private final SQLiteDatabase db;
+    private final Thread owner;
+    private final Map<GenericRepository<?>, TransactionRepository<?>> repositories = new IdentityHashMap<>();
+    private int savepointDepth;
+    private boolean closed;
+
+    DbTransaction(SQLiteDatabase db) {
+        this.db = db;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * Verilen repository'nin bu transaction'a bağlı görünümünü döndürür. Görünümdeki işlemler
+     * hemen çalışır ve sonuç döndürür; değişiklikler transaction commit edildiğinde kalıcı olur.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TransactionRepository<T> repository(GenericRepository<T> repository) {
+        checkOpen();
+        TransactionRepository<T> view = (TransactionRepository<T>) repositories.get(repository);
+        if (view == null) {
+            view = new TransactionRepository<>(this, repository);
+            repositories.put(repository, view);
+        }
+        return view;
+    }
+
+    /**
+     * İşi bir savepoint içinde çalıştırır. İş hata fırlatırsa sadece savepoint'ten sonraki
+     * değişiklikler geri alınır ve hata tekrar fırlatılır; yakalanırsa dıştaki transaction devam eder.
+     * Savepoint'ler iç içe kullanılabilir.
+     */
+    public <R> R savepoint(TransactionWork<R> work) throws Exception {
+        checkOpen();
+        String name = "sp_" + (++savepointDepth);
+        db.execSQL("SAVEPOINT " + name);
+        try {
+            R result = work.run(this);
+            db.execSQL("RELEASE " + name);
+            return result;
+        } catch (Exception e) {
+            db.execSQL(ROLLBACK_TO + name);
+            if (!db.inTransaction()) {
+                // İfade savepoint'e dönmek yerine dıştaki transaction'ı bitirdi; devam etmek
+                // işin geri kalanını transaction dışında çalıştırırdı.
+                IllegalStateException failure = new IllegalStateException("Savepoint geri alınırken dıştaki transaction sonlandı.");
+                failure.addSuppressed(e);
+                throw failure;
+            }
+            db.execSQL("RELEASE " + name);
+            discardCachedEntities();
+            throw e;
+        } finally {
+            savepointDepth--;
+        }
+    }
+
+    SQLiteDatabase getDatabase() {
+        checkOpen();
+        return db;
+    }
+
+    void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Transaction kapandı; görünümler runInTransaction dışında kullanılamaz.");
+        }
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Transaction sadece açıldığı veritabanı thread'inden kullanılabilir.");
+        }
+    }
+
+    /** Geri alınan değişiklikleri içerebilecek nesne önbelleklerini boşaltır. */
+    void discardCachedEntities() {
+        for (GenericRepository<?> repository : new ArrayList<>(repositories.keySet())) {
+            repository.getIdentityMap().clear();
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+}
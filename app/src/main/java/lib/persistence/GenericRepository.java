@@ -1,22 +1,75 @@
 package lib.persistence;
 
 import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
 
-import java.util.ArrayList;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lib.persistence.command.manipulation.DeleteCommand;
+import lib.persistence.command.manipulation.DeleteSql;
 import lib.persistence.command.manipulation.InsertCommand;
 import lib.persistence.command.manipulation.UpdateCommand;
+import lib.persistence.command.manipulation.UpdateSql;
+import lib.persistence.command.manipulation.UpsertCommand;
+import lib.persistence.command.query.CompiledQuery;
 import lib.persistence.command.query.Select;
+import lib.persistence.profile.DbColumn;
 import lib.persistence.profile.Mapper;
+import lib.persistence.profile.RowMapper;
 
 public abstract class GenericRepository<T> {
 
+    /** SQLite'ın bir ifadede izin verdiği en fazla parametre sayısı (3.32 öncesi varsayılan). */
+    static final int SQLITE_MAX_VARIABLES = 999;
+    // replaceSet'te parametre sınırını aşan anahtar kümeleri için geçici tablo
+    private static final String REPLACE_SET_KEYS_TABLE = "temp.replace_set_keys";
+
     protected final ADbContext dbContext;
     protected final Class<T> type;
+    private final String tableName;
+    private final IdentityMap<T> identityMap;
+    private WriteBehindQueue<T> writeBehindQueue;
+    // selectAll ve getById sorguları tip başına bir kez derlenir.
+    private final CompiledQuery<T> selectAllQuery;
+    private volatile CompiledQuery<T> byIdQuery;
 
     public GenericRepository(ADbContext dbContext, Class<T> type) {
+        this(dbContext, type, dbContext.getOptions().identityMapSize);
+    }
+
+    /**
+     * @param identityMapSize Tipin nesne önbelleği kapasitesi; 0 ise devre dışı. Önbellek aynı tipin
+     *                        tüm repository örnekleri arasında paylaşılır; kapasiteyi ilk oluşturan belirler.
+     */
+    public GenericRepository(ADbContext dbContext, Class<T> type, int identityMapSize) {
         this.dbContext = dbContext;
         this.type = type;
+        this.tableName = Mapper.getTableName(type);
+        this.identityMap = dbContext.identityMapFor(type, identityMapSize);
+        this.selectAllQuery = Select.from(type).compile();
+    }
+
+    /** Tipin birincil anahtara göre tutulan, paylaşılan nesne önbelleği; isabet/ıskalama sayaçları için kullanılabilir. */
+    public IdentityMap<T> getIdentityMap() {
+        return identityMap;
     }
 
     /**
@@ -26,23 +79,110 @@ public abstract class GenericRepository<T> {
      * @param item Eklenecek nesne (model).
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void insert(T item, DbCallback<T> callback) {
-        dbContext.runDbOperation((db) -> {
-            // InsertCommand'i kullanarak tablo adını ve Content Values'ı hazırla
-            InsertCommand command = InsertCommand.build(item);
+    public DbTaskHandle<T> insert(T item, DbCallback<T> callback) {
+        return dbContext.runDbOperation("insert", tableName, (db) -> insert(db, item), callback, true);
+    }
 
-            long last_insert_rowid = db.insert(command.getTableName(), null, command.getContentValues());
+    DbResult<T> insert(SQLiteDatabase db, T item) throws Exception {
+        // Tablonun sorgu önbelleği sürümü işlem bittikten sonra artırılır
+        dbContext.markTableChanged(tableName);
+        insertRow(db, item);
+        identityMap.put(item);
+        dbContext.recordRows(0, 1);
 
-            if (last_insert_rowid == -1) {
-                throw new Exception("Kayıt eklenirken bir hata oluştu. Lütfen veritabanı kısıtlamalarını kontrol edin.");
-            }
+        return new DbResult.Success<>(item);
+    }
 
-            // Başarılı ekleme sonrası nesnenin ID'sini güncelle
-            Mapper.setId(item, last_insert_rowid);
+    // Önbellekteki derlenmiş INSERT ifadesine değerleri doğrudan nesneden bağlar ve oluşan ID'yi nesneye atar.
+    private void insertRow(SQLiteDatabase db, T item) throws Exception {
+        SQLiteStatement statement = dbContext.compileStatement(db, InsertCommand.buildSql(type));
+        Mapper.bindInsertArgs(statement, item);
 
-            return new DbResult.Success<>(item);
+        long last_insert_rowid = statement.executeInsert();
 
-        }, callback, true);
+        if (last_insert_rowid == -1) {
+            throw new Exception("Kayıt eklenirken bir hata oluştu. Lütfen veritabanı kısıtlamalarını kontrol edin.");
+        }
+
+        // Başarılı ekleme sonrası nesnenin ID'sini güncelle
+        Mapper.setId(item, last_insert_rowid);
+    }
+
+    /**
+     * Birden fazla kaydı tek bir derlenmiş INSERT ifadesi ile toplu olarak ekler.
+     * Satırlar DbOptions.bulkInsertChunkSize büyüklüğündeki parçalar halinde, her parça
+     * kendi transaction'ı içinde yazılır. Oluşan ID'ler Mapper.setId ile nesnelere atanır.
+     *
+     * @param items Eklenecek nesneler.
+     * @param callback Başarılı olursa eklenen nesnelerin listesini alır.
+     */
+    public DbTaskHandle<ArrayList<T>> insertAll(Collection<T> items, DbCallback<ArrayList<T>> callback) {
+        return insertAll(items.iterator(), callback);
+    }
+
+    /**
+     * insertAll(Collection) ile aynıdır; işlem verilen öncelikle kuyruğa alınır. Büyük arka plan
+     * yüklemeleri DbPriority.BACKGROUND ile gönderilirse bekleyen etkileşimli işlemler önce çalışır.
+     */
+    public DbTaskHandle<ArrayList<T>> insertAll(Collection<T> items, DbPriority priority, DbCallback<ArrayList<T>> callback) {
+        return dbContext.runDbOperation("insertAll", tableName, (db) -> insertAll(db, items.iterator()), callback, true, priority);
+    }
+
+    /**
+     * insertAll(Collection) ile aynıdır; kayıtlar veritabanı thread'inde iterator'dan okunur.
+     * Bir parça başarısız olursa o parça geri alınır, önceki parçalar kalıcıdır ve
+     * hata mesajı kaydedilen satır sayısını içerir. ADbContext.runInTransaction içinde
+     * parçalar ayrı transaction açmaz, dıştaki transaction ile birlikte commit edilir.
+     *
+     * @param items Eklenecek nesneleri sırayla veren iterator.
+     * @param callback Başarılı olursa eklenen nesnelerin listesini alır.
+     */
+    public DbTaskHandle<ArrayList<T>> insertAll(Iterator<T> items, DbCallback<ArrayList<T>> callback) {
+        return dbContext.runDbOperation("insertAll", tableName, (db) -> insertAll(db, items), callback, true);
+    }
+
+    DbResult<ArrayList<T>> insertAll(SQLiteDatabase db, Iterator<T> items) {
+        dbContext.markTableChanged(tableName);
+        int chunkSize = dbContext.getOptions().bulkInsertChunkSize;
+        ArrayList<T> insertedItems = new ArrayList<>();
+        ArrayList<T> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+
+        // Aynı ifade tüm satırlar için yeniden kullanılır; SQL sadece bir kez derlenir.
+        SQLiteStatement statement = dbContext.compileStatement(db, InsertCommand.buildSql(type));
+        try {
+            while (items.hasNext()) {
+                chunk.clear();
+                boolean ownsTransaction = beginTransactionIfNeeded(db);
+                try {
+                    while (chunk.size() < chunkSize && items.hasNext()) {
+                        T item = items.next();
+                        statement.clearBindings();
+                        Mapper.bindInsertArgs(statement, item);
+
+                        long last_insert_rowid = statement.executeInsert();
+                        if (last_insert_rowid == -1) {
+                            throw new Exception("Kayıt eklenirken bir hata oluştu. Lütfen veritabanı kısıtlamalarını kontrol edin.");
+                        }
+                        Mapper.setId(item, last_insert_rowid);
+                        chunk.add(item);
+                    }
+                    if (ownsTransaction) db.setTransactionSuccessful();
+                } finally {
+                    if (ownsTransaction) db.endTransaction();
+                }
+                // Parça kalıcı olduktan sonra önbelleğe al
+                for (T item : chunk) {
+                    identityMap.put(item);
+                }
+                insertedItems.addAll(chunk);
+            }
+        } catch (Exception e) {
+            dbContext.recordRows(0, insertedItems.size());
+            return new DbResult.Error<>(e, "Toplu ekleme yarıda kaldı. Kaydedilen kayıt sayısı: " + insertedItems.size());
+        }
+
+        dbContext.recordRows(0, insertedItems.size());
+        return new DbResult.Success<>(insertedItems);
     }
 
     /**
@@ -51,22 +191,272 @@ public abstract class GenericRepository<T> {
      * @param item Güncellenecek nesne.
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void update(T item, DbCallback<T> callback) {
-        dbContext.runDbOperation((db) -> {
-            UpdateCommand command = UpdateCommand.build(item);
+    public DbTaskHandle<T> update(T item, DbCallback<T> callback) {
+        return dbContext.runDbOperation("update", tableName, (db) -> update(db, item), callback, true);
+    }
+
+    DbResult<T> update(SQLiteDatabase db, T item) {
+        dbContext.markTableChanged(tableName);
+        DbResult<T> result = updateRow(db, item);
+        if (result instanceof DbResult.Success) {
+            dbContext.recordRows(0, 1);
+        }
+        return result;
+    }
 
-            int rowsAffected = db.update(
-                    command.getTableName(),
-                    command.getContentValues(),
-                    command.getWhereClause(),
-                    command.getWhereArgs()
-            );
+    private DbResult<T> updateRow(SQLiteDatabase db, T item) {
+        SQLiteStatement statement = dbContext.compileStatement(db, UpdateCommand.buildSql(type));
+        Mapper.bindUpdateArgs(statement, item);
 
-            if (rowsAffected <= 0) {
-                return new DbResult.Error<>(new Exception("Güncellenecek kayıt bulunamadı veya işlem başarısız oldu."), "Hiçbir kayıt güncellenemedi.");
+        int rowsAffected = statement.executeUpdateDelete();
+
+        if (rowsAffected <= 0) {
+            identityMap.remove(Mapper.getPrimaryKeyValue(item));
+            return new DbResult.Error<>(new Exception("Güncellenecek kayıt bulunamadı veya işlem başarısız oldu."), "Hiçbir kayıt güncellenemedi.");
+        }
+        identityMap.put(item);
+        return new DbResult.Success<>(item);
+    }
+
+    // --- UPSERT ---
+
+    /**
+     * Kaydı ekler; çakışma hedefinde (identity olmayan birincil anahtar veya isUnique sütunlar)
+     * aynı değere sahip bir kayıt varsa onu günceller. Identity birincil anahtar nesneye atanır.
+     *
+     * @param item Eklenecek veya güncellenecek nesne.
+     * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
+     */
+    public DbTaskHandle<T> upsert(T item, DbCallback<T> callback) {
+        return dbContext.runDbOperation("upsert", tableName, (db) -> upsert(db, item), callback, true);
+    }
+
+    DbResult<T> upsert(SQLiteDatabase db, T item) throws Exception {
+        dbContext.markTableChanged(tableName);
+        upsertRow(db, item, Mapper.getConflictColumns(type));
+        identityMap.put(item);
+        dbContext.recordRows(0, 1);
+        return new DbResult.Success<>(item);
+    }
+
+    /**
+     * Tüm kayıtları tek bir transaction içinde upsert eder. Sunucudan gelen ve yerelde
+     * kısmen bulunan koleksiyonları eşitlemek için kullanılır; hata olursa hiçbir değişiklik kalmaz.
+     *
+     * @param items Eklenecek veya güncellenecek nesneler.
+     * @param callback Başarılı olursa nesnelerin listesini alır.
+     */
+    public DbTaskHandle<ArrayList<T>> upsertAll(Collection<T> items, DbCallback<ArrayList<T>> callback) {
+        return dbContext.runDbOperation("upsertAll", tableName, (db) -> upsertAll(db, items), callback, true);
+    }
+
+    DbResult<ArrayList<T>> upsertAll(SQLiteDatabase db, Collection<T> items) throws Exception {
+        dbContext.markTableChanged(tableName);
+        String[] conflictColumns = Mapper.getConflictColumns(type);
+        ArrayList<T> merged = new ArrayList<>(items.size());
+        boolean ownsTransaction = beginTransactionIfNeeded(db);
+        try {
+            for (T item : items) {
+                upsertRow(db, item, conflictColumns);
+                merged.add(item);
             }
-            return new DbResult.Success<>(item);
+            if (ownsTransaction) db.setTransactionSuccessful();
+        } finally {
+            if (ownsTransaction) db.endTransaction();
+        }
+        for (T item : merged) {
+            identityMap.put(item);
+        }
+        dbContext.recordRows(0, merged.size());
+        return new DbResult.Success<>(merged);
+    }
 
+    /**
+     * Tabloyu verilen koleksiyonla eşitler: gelen kayıtları upsert eder ve koleksiyonda olmayan
+     * kayıtları siler. Tümü tek transaction içinde yapılır; tabloyu silip baştan eklemekten farklı
+     * olarak değişmeyen satırlar ve ID'leri korunur. Silme, tablo Java'ya okunmadan tek bir
+     * "DELETE ... WHERE pk NOT IN (...)" ile yapılır; anahtarlar SQLite parametre sınırını aşarsa
+     * geçici (TEMP) bir tabloya yazılıp alt sorgu ile kullanılır.
+     *
+     * @param items Tabloda kalması gereken kayıtların tamamı.
+     * @param callback Başarılı olursa nesnelerin listesini alır.
+     */
+    public DbTaskHandle<ArrayList<T>> replaceSet(Collection<T> items, DbCallback<ArrayList<T>> callback) {
+        return dbContext.runDbOperation("replaceSet", tableName, (db) -> replaceSet(db, items), callback, true);
+    }
+
+    DbResult<ArrayList<T>> replaceSet(SQLiteDatabase db, Collection<T> items) throws Exception {
+        dbContext.markTableChanged(tableName);
+        String[] conflictColumns = Mapper.getConflictColumns(type);
+        ArrayList<T> merged = new ArrayList<>(items.size());
+        ArrayList<Object> keptKeys = new ArrayList<>(items.size());
+        int removedCount;
+        boolean ownsTransaction = beginTransactionIfNeeded(db);
+        try {
+            for (T item : items) {
+                upsertRow(db, item, conflictColumns);
+                keptKeys.add(Mapper.getPrimaryKeyValue(item));
+                merged.add(item);
+            }
+            removedCount = deleteAllExcept(db, keptKeys);
+            if (ownsTransaction) db.setTransactionSuccessful();
+        } finally {
+            if (ownsTransaction) db.endTransaction();
+        }
+        // Hangi kayıtların silindiği okunmadığı için nesne önbelleği boşaltılır.
+        identityMap.clear();
+        for (T item : merged) {
+            identityMap.put(item);
+        }
+        dbContext.recordRows(0, merged.size() + removedCount);
+        return new DbResult.Success<>(merged);
+    }
+
+    // Birincil anahtarı keptKeys içinde olmayan tüm kayıtları tek bir DELETE ile siler.
+    private int deleteAllExcept(SQLiteDatabase db, List<Object> keptKeys) {
+        String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+        if (keptKeys.isEmpty()) {
+            return db.delete(tableName, null, null);
+        }
+        // Anahtar sayısı her çağrıda değişir; tek seferlik ifadeler önbelleğe alınmaz.
+        if (keptKeys.size() <= SQLITE_MAX_VARIABLES) {
+            try (SQLiteStatement statement = db.compileStatement(
+                    "DELETE FROM " + tableName + " WHERE " + primaryKeyColumn + " NOT IN (" + placeholders(keptKeys.size()) + ")")) {
+                for (int i = 0; i < keptKeys.size(); i++) {
+                    Mapper.bindValue(statement, i + 1, keptKeys.get(i));
+                }
+                return statement.executeUpdateDelete();
+            }
+        }
+
+        // Geçici tablo sadece bu bağlantıda görünür ve transaction ile birlikte geri alınır.
+        db.execSQL("CREATE TEMP TABLE IF NOT EXISTS " + REPLACE_SET_KEYS_TABLE + " (k PRIMARY KEY)");
+        try {
+            db.execSQL("DELETE FROM " + REPLACE_SET_KEYS_TABLE);
+            try (SQLiteStatement insert = db.compileStatement("INSERT OR IGNORE INTO " + REPLACE_SET_KEYS_TABLE + " (k) VALUES (?)")) {
+                for (Object key : keptKeys) {
+                    insert.clearBindings();
+                    Mapper.bindValue(insert, 1, key);
+                    insert.executeInsert();
+                }
+            }
+            try (SQLiteStatement delete = db.compileStatement("DELETE FROM " + tableName + " WHERE " + primaryKeyColumn
+                    + " NOT IN (SELECT k FROM " + REPLACE_SET_KEYS_TABLE + ")")) {
+                return delete.executeUpdateDelete();
+            }
+        } finally {
+            db.execSQL("DROP TABLE IF EXISTS " + REPLACE_SET_KEYS_TABLE);
+        }
+    }
+
+    // Tek bir kaydı upsert eder; SQLite ON CONFLICT desteklemiyorsa UPDATE, satır yoksa INSERT yapar.
+    private void upsertRow(SQLiteDatabase db, T item, String[] conflictColumns) throws Exception {
+        if (dbContext.supportsUpsert(db)) {
+            SQLiteStatement statement = dbContext.compileStatement(db, UpsertCommand.buildSql(type, conflictColumns));
+            Mapper.bindInsertArgs(statement, item);
+            // Güncelleme yolunda last_insert_rowid değişmez; identity değeri aşağıda okunur.
+            statement.executeUpdateDelete();
+        } else {
+            String updateSql = UpsertCommand.buildUpdateSql(type, conflictColumns);
+            boolean exists;
+            if (updateSql != null) {
+                SQLiteStatement statement = dbContext.compileStatement(db, updateSql);
+                String[] updateColumns = UpsertCommand.getUpdateColumns(type, conflictColumns);
+                int next = Mapper.bindColumnArgs(statement, item, updateColumns, 1);
+                Mapper.bindColumnArgs(statement, item, conflictColumns, next);
+                exists = statement.executeUpdateDelete() > 0;
+            } else {
+                exists = findIdentityByConflict(db, item, conflictColumns) != null;
+            }
+            if (!exists) {
+                insertRow(db, item);
+                return;
+            }
+        }
+
+        if (hasIdentityColumn()) {
+            String id = findIdentityByConflict(db, item, conflictColumns);
+            if (id != null) {
+                Mapper.setId(item, Long.parseLong(id));
+            }
+        }
+    }
+
+    // Çakışma sütunlarına göre kaydın birincil anahtarını döndürür, kayıt yoksa null.
+    private String findIdentityByConflict(SQLiteDatabase db, T item, String[] conflictColumns) {
+        String[] args = new String[conflictColumns.length];
+        for (int i = 0; i < conflictColumns.length; i++) {
+            args[i] = Mapper.toSqlArgument(Mapper.getColumnValue(item, conflictColumns[i]));
+        }
+        try (Cursor cursor = db.rawQuery(UpsertCommand.buildKeyLookupSql(type, conflictColumns), args)) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    private boolean hasIdentityColumn() {
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            if (column.isIdentity()) return true;
+        }
+        return false;
+    }
+
+    // --- WRITE-BEHIND ---
+
+    /**
+     * Bu repository'nin write-behind kuyruğunu döndürür, yoksa oluşturur. Kuyruğa eklenen
+     * insert/update işlemleri bellekte biriktirilir ve tek bir transaction ile yazılır.
+     */
+    public synchronized WriteBehindQueue<T> writeBehind() {
+        if (writeBehindQueue == null) {
+            writeBehindQueue = new WriteBehindQueue<>(this, dbContext.getMaintenanceExecutor(), dbContext.getOptions());
+        }
+        return writeBehindQueue;
+    }
+
+    /**
+     * Kuyruktan gelen yazmaları tek transaction içinde uygular. Commit başarılı olursa her öğenin
+     * geri çağırması kendi sonucuyla, başarısız olursa tüm öğeler hata ile çağrılır.
+     */
+    void writeBatch(List<WriteBehindQueue.PendingWrite<T>> batch, DbCallback<Integer> callback) {
+        dbContext.runDbOperation("writeBatch", tableName, (db) -> {
+            dbContext.markTableChanged(tableName);
+            ArrayList<DbResult<T>> results = new ArrayList<>(batch.size());
+            Exception failure = null;
+            db.beginTransaction();
+            try {
+                for (WriteBehindQueue.PendingWrite<T> write : batch) {
+                    if (write.isUpdate) {
+                        results.add(updateRow(db, write.item));
+                    } else {
+                        insertRow(db, write.item);
+                        results.add(new DbResult.Success<>(write.item));
+                    }
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                db.endTransaction();
+            }
+
+            if (failure != null) {
+                // Transaction geri alındı; önbelleğe yazılan nesneler artık geçerli değil.
+                for (WriteBehindQueue.PendingWrite<T> write : batch) {
+                    identityMap.remove(Mapper.getPrimaryKeyValue(write.item));
+                    write.deliver(new DbResult.Error<>(failure, "Toplu yazma geri alındı: " + failure.getMessage()));
+                }
+                throw failure;
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                WriteBehindQueue.PendingWrite<T> write = batch.get(i);
+                if (!write.isUpdate) {
+                    identityMap.put(write.item);
+                }
+                write.deliver(results.get(i));
+            }
+            dbContext.recordRows(0, batch.size());
+            return new DbResult.Success<>(batch.size());
         }, callback, true);
     }
 
@@ -101,35 +491,32 @@ public abstract class GenericRepository<T> {
      * @param object Silinecek nesne (model).
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void delete(T object, DbCallback<T> callback) { // Parametre Object id yerine T object olarak değiştirildi.
-        dbContext.runDbOperation((db) -> {
-            // Nesneden birincil anahtar değerini alalım
-            Object primaryKeyValue = Mapper.getPrimaryKeyValue(object);
+    public DbTaskHandle<T> delete(T object, DbCallback<T> callback) { // Parametre Object id yerine T object olarak değiştirildi.
+        return dbContext.runDbOperation("delete", tableName, (db) -> delete(db, object), callback, true); // true: yazılabilir veritabanı erişimi
+    }
 
-            // Eğer birincil anahtar değeri null ise, hata döndür
-            if (primaryKeyValue == null) {
-                return new DbResult.Error<>(new IllegalArgumentException("Nesnenin birincil anahtar değeri null olamaz."), "Geçersiz nesne: birincil anahtar değeri bulunamadı.");
-            }
+    DbResult<T> delete(SQLiteDatabase db, T object) {
+        dbContext.markTableChanged(tableName);
+        // Nesneden birincil anahtar değerini alalım
+        Object primaryKeyValue = Mapper.getPrimaryKeyValue(object);
 
-            // Silme işlemini gerçekleştir
-            String tableName = Mapper.getTableName(type);
-            String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+        // Eğer birincil anahtar değeri null ise, hata döndür
+        if (primaryKeyValue == null) {
+            return new DbResult.Error<>(new IllegalArgumentException("Nesnenin birincil anahtar değeri null olamaz."), "Geçersiz nesne: birincil anahtar değeri bulunamadı.");
+        }
 
-            int rowsAffected = db.delete(
-                    tableName,
-                    primaryKeyColumn + " = ?",
-                    new String[]{String.valueOf(primaryKeyValue)} // Nesneden alınan değeri kullanıyoruz.
-            );
+        // Silme işlemini gerçekleştir
+        int rowsAffected = deleteByPrimaryKey(db, primaryKeyValue); // Nesneden alınan değeri kullanıyoruz.
+        identityMap.remove(primaryKeyValue);
+        dbContext.recordRows(0, rowsAffected);
 
-            if (rowsAffected <= 0) {
-                // Silme işlemi başarısız olursa
-                return new DbResult.Error<>(new Exception("Silme işlemi başarısız oldu."), "Kayıt silinemedi.");
-            }
+        if (rowsAffected <= 0) {
+            // Silme işlemi başarısız olursa
+            return new DbResult.Error<>(new Exception("Silme işlemi başarısız oldu."), "Kayıt silinemedi.");
+        }
 
-            // Başarılı olursa, silinen nesneyi döndür
-            return new DbResult.Success<>(object);
-
-        }, callback, true); // true: yazılabilir veritabanı erişimi
+        // Başarılı olursa, silinen nesneyi döndür
+        return new DbResult.Success<>(object);
     }
 
     /**
@@ -138,17 +525,30 @@ public abstract class GenericRepository<T> {
      * @param id Silinecek kaydın birincil anahtar değeri.
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void deleteById(Object id, DbCallback<T> callback) { // DbCallback<Boolean> yerine DbCallback<T> yapıldı
-        dbContext.runDbOperation((db) -> {
+    public DbTaskHandle<T> deleteById(Object id, DbCallback<T> callback) { // DbCallback<Boolean> yerine DbCallback<T> yapıldı
+        return deleteById(id, true, callback);
+    }
+
+    /**
+     * Veritabanından belirli bir ID'ye sahip kaydı siler.
+     *
+     * @param id Silinecek kaydın birincil anahtar değeri.
+     * @param readBeforeDelete true ise kayıt silinmeden önce okunup geri döndürülür. false ise SELECT
+     *                         yapılmaz; sonuç nesne önbellekte varsa o, yoksa null olur.
+     * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
+     */
+    public DbTaskHandle<T> deleteById(Object id, boolean readBeforeDelete, DbCallback<T> callback) {
+        return dbContext.runDbOperation("deleteById", tableName, (db) -> deleteById(db, id, readBeforeDelete), callback, true); // true: yazılabilir veritabanı erişimi
+    }
+
+    DbResult<T> deleteById(SQLiteDatabase db, Object id, boolean readBeforeDelete) {
+        dbContext.markTableChanged(tableName);
+        T itemToDelete = identityMap.get(id);
+        if (itemToDelete == null && readBeforeDelete) {
             // Silinecek nesneyi önce veritabanından çekelim
-            String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
-            Select<T> selectCommand = Select.from(type)
-                    .where()
-                    .Equals(primaryKeyColumn, id)
-                    .limit(1);
+            CompiledQuery<T> selectCommand = byIdQuery().withArgs(id);
 
-            T itemToDelete = null;
-            try (Cursor cursor = db.rawQuery(selectCommand.getQuery(), selectCommand.getWhereArgs())) {
+            try (Cursor cursor = query(db, selectCommand, null)) {
                 if (cursor.moveToFirst()) {
                     itemToDelete = Mapper.cursorToObject(cursor, selectCommand.getType());
                 }
@@ -158,23 +558,225 @@ public abstract class GenericRepository<T> {
             if (itemToDelete == null) {
                 return new DbResult.Error<>(new Exception("Kayıt bulunamadı."), "Belirtilen ID'ye sahip kayıt bulunamadı.");
             }
+        }
+
+        // Kayıt bulunduktan sonra silme işlemini gerçekleştir
+        int rowsAffected = deleteByPrimaryKey(db, id);
+        identityMap.remove(id);
+        dbContext.recordRows(0, rowsAffected);
 
-            // Kayıt bulunduktan sonra silme işlemini gerçekleştir
-            int rowsAffected = db.delete(
-                    Mapper.getTableName(type),
-                    primaryKeyColumn + " = ?",
-                    new String[]{String.valueOf(id)}
-            );
+        if (rowsAffected <= 0) {
+            // Silme işlemi başarısız olursa (bu duruma nadiren düşülür)
+            return new DbResult.Error<>(new Exception("Silme işlemi başarısız oldu."), "Kayıt silinemedi.");
+        }
+
+        // Başarılı olursa, silinen nesneyi döndür
+        return new DbResult.Success<>(itemToDelete);
+    }
 
-            if (rowsAffected <= 0) {
-                // Silme işlemi başarısız olursa (bu duruma nadiren düşülür)
-                return new DbResult.Error<>(new Exception("Silme işlemi başarısız oldu."), "Kayıt silinemedi.");
+    // Önbellekteki derlenmiş "DELETE ... WHERE pk=?" ifadesini çalıştırır.
+    private int deleteByPrimaryKey(SQLiteDatabase db, Object primaryKeyValue) {
+        SQLiteStatement statement = dbContext.compileStatement(db, DeleteCommand.buildSql(type));
+        Mapper.bindValue(statement, 1, primaryKeyValue);
+        return statement.executeUpdateDelete();
+    }
+
+    /**
+     * Verilen ID'lere sahip kayıtları "DELETE ... WHERE pk IN (...)" ile siler. ID'ler SQLite
+     * parametre sınırına (SQLITE_MAX_VARIABLES) göre parçalanır; tüm parçalar tek transaction içindedir.
+     *
+     * @param ids Silinecek kayıtların birincil anahtar değerleri.
+     * @param callback Silinen satır sayısını alır.
+     */
+    public DbTaskHandle<Integer> deleteByIds(Collection<?> ids, DbCallback<Integer> callback) {
+        final ArrayList<Object> idList = new ArrayList<>(ids);
+        return dbContext.runDbOperation("deleteByIds", tableName, (db) -> deleteByIds(db, idList), callback, true);
+    }
+
+    DbResult<Integer> deleteByIds(SQLiteDatabase db, List<Object> idList) {
+        dbContext.markTableChanged(tableName);
+        String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+        int rowsAffected = 0;
+        boolean ownsTransaction = beginTransactionIfNeeded(db);
+        try {
+            for (int start = 0; start < idList.size(); start += SQLITE_MAX_VARIABLES) {
+                List<Object> chunk = idList.subList(start, Math.min(start + SQLITE_MAX_VARIABLES, idList.size()));
+                // Parça uzunluğu çağrıdan çağrıya değişir; ifade paylaşılan önbelleğe alınırsa
+                // sık kullanılan INSERT/UPDATE/DELETE ifadelerini önbellekten çıkarır.
+                try (SQLiteStatement statement = db.compileStatement(
+                        "DELETE FROM " + tableName + " WHERE " + primaryKeyColumn + " IN (" + placeholders(chunk.size()) + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Mapper.bindValue(statement, i + 1, chunk.get(i));
+                    }
+                    rowsAffected += statement.executeUpdateDelete();
+                }
             }
+            if (ownsTransaction) db.setTransactionSuccessful();
+        } finally {
+            if (ownsTransaction) db.endTransaction();
+        }
+        for (Object id : idList) {
+            identityMap.remove(id);
+        }
+        dbContext.recordRows(0, rowsAffected);
+        return new DbResult.Success<>(rowsAffected);
+    }
+
+    /**
+     * DeleteSql koşullarına uyan tüm kayıtları tek bir DELETE ile siler.
+     * Koşul yoksa işlem hata ile sonuçlanır; tabloyu boşaltmak için {@link #deleteAll} kullanılmalıdır.
+     *
+     * @param command Silme koşullarını içeren DeleteSql.
+     * @param callback Silinen satır sayısını alır.
+     */
+    public DbTaskHandle<Integer> deleteWhere(DeleteSql command, DbCallback<Integer> callback) {
+        return dbContext.runDbOperation("deleteWhere", tableName, (db) -> deleteWhere(db, command), callback, true);
+    }
+
+    DbResult<Integer> deleteWhere(SQLiteDatabase db, DeleteSql command) {
+        dbContext.markTableChanged(command.getTableName());
+        int rowsAffected;
+        // Serbest koşullu SQL tek seferliktir; paylaşılan ifade önbelleğine alınmaz.
+        try (SQLiteStatement statement = db.compileStatement(command.getSql())) {
+            command.bindTo(statement);
+            rowsAffected = statement.executeUpdateDelete();
+        }
+        // Hangi kayıtların silindiği bilinmediği için nesne önbelleği boşaltılır.
+        identityMap.clear();
+        dbContext.recordRows(0, rowsAffected);
+        return new DbResult.Success<>(rowsAffected);
+    }
+
+    /**
+     * UpdateSql ile verilen değerleri koşula uyan tüm kayıtlara tek bir UPDATE ile yazar.
+     * Koşul yoksa işlem hata ile sonuçlanır.
+     *
+     * @param command Yeni değerleri (set) ve koşulları içeren UpdateSql.
+     * @param callback Güncellenen satır sayısını alır.
+     */
+    public DbTaskHandle<Integer> updateWhere(UpdateSql command, DbCallback<Integer> callback) {
+        return dbContext.runDbOperation("updateWhere", tableName, (db) -> updateWhere(db, command), callback, true);
+    }
 
-            // Başarılı olursa, silinen nesneyi döndür
-            return new DbResult.Success<>(itemToDelete);
+    DbResult<Integer> updateWhere(SQLiteDatabase db, UpdateSql command) {
+        dbContext.markTableChanged(command.getTableName());
+        int rowsAffected;
+        // Serbest koşullu SQL tek seferliktir; paylaşılan ifade önbelleğine alınmaz.
+        try (SQLiteStatement statement = db.compileStatement(command.getSql())) {
+            command.bindTo(statement);
+            rowsAffected = statement.executeUpdateDelete();
+        }
+        // Önbellekteki nesneler artık veritabanıyla aynı olmayabilir.
+        identityMap.clear();
+        dbContext.recordRows(0, rowsAffected);
+        return new DbResult.Success<>(rowsAffected);
+    }
 
-        }, callback, true); // true: yazılabilir veritabanı erişimi
+    /**
+     * UpdateSql ile verilen değerleri, verilen ID'lere sahip kayıtlara yazar (UPDATE ... WHERE pk IN (...)).
+     * UpdateSql'deki koşullar da AND ile uygulanır. ID'ler SQLite parametre sınırına göre
+     * parçalanır; tüm parçalar tek transaction içindedir.
+     *
+     * @param ids Güncellenecek kayıtların birincil anahtar değerleri.
+     * @param command Yeni değerleri (set) içeren UpdateSql.
+     * @param callback Güncellenen satır sayısını alır.
+     */
+    public DbTaskHandle<Integer> updateByIds(Collection<?> ids, UpdateSql command, DbCallback<Integer> callback) {
+        final ArrayList<Object> idList = new ArrayList<>(ids);
+        return dbContext.runDbOperation("updateByIds", tableName, (db) -> updateByIds(db, idList, command), callback, true);
+    }
+
+    DbResult<Integer> updateByIds(SQLiteDatabase db, List<Object> idList, UpdateSql command) {
+        dbContext.markTableChanged(command.getTableName());
+        String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+        String whereClause = command.getWhereClause();
+        int chunkSize = SQLITE_MAX_VARIABLES - command.getArgCount();
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("UpdateSql SQLite parametre sınırını aşıyor.");
+        }
+        String updatePrefix = "UPDATE " + command.getTableName() + " SET " + command.getSetClause()
+                + (whereClause.isEmpty() ? " WHERE " : " WHERE (" + whereClause + ") AND ");
+
+        int rowsAffected = 0;
+        boolean ownsTransaction = beginTransactionIfNeeded(db);
+        try {
+            for (int start = 0; start < idList.size(); start += chunkSize) {
+                List<Object> chunk = idList.subList(start, Math.min(start + chunkSize, idList.size()));
+                // Parça uzunluğu ve UpdateSql metni çağrıdan çağrıya değişir; paylaşılan ifade önbelleğine alınmaz.
+                try (SQLiteStatement statement = db.compileStatement(
+                        updatePrefix + primaryKeyColumn + " IN (" + placeholders(chunk.size()) + ")")) {
+                    int index = command.bindTo(statement);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Mapper.bindValue(statement, ++index, chunk.get(i));
+                    }
+                    rowsAffected += statement.executeUpdateDelete();
+                }
+            }
+            if (ownsTransaction) db.setTransactionSuccessful();
+        } finally {
+            if (ownsTransaction) db.endTransaction();
+        }
+        for (Object id : idList) {
+            identityMap.remove(id);
+        }
+        dbContext.recordRows(0, rowsAffected);
+        return new DbResult.Success<>(rowsAffected);
+    }
+
+    /**
+     * Bağlantıda açık bir transaction (ör. runInTransaction) yoksa yeni bir transaction başlatır.
+     * Varsa ona katılır; iç içe transaction açılmaz, böylece savepoint'e geri dönülen bir hata
+     * dıştaki transaction'ı başarısız olarak işaretlemez.
+     *
+     * @return Transaction bu çağrıyla başlatıldıysa true; commit ve kapatma çağırana aittir.
+     */
+    private static boolean beginTransactionIfNeeded(SQLiteDatabase db) {
+        if (db.inTransaction()) return false;
+        db.beginTransaction();
+        return true;
+    }
+
+    /**
+     * Derlenmiş sorguyu parametreleri tipleriyle (bindLong/bindDouble/bindBlob/bindString) bağlayarak
+     * çalıştırır. rawQuery tüm parametreleri metin olarak bağlar; sayısal sütunlarla karşılaştırmada
+     * bu dönüşüm ve gereksiz affinity çevrimi yapılmaz.
+     */
+    private static Cursor query(SQLiteDatabase db, CompiledQuery<?> query, @Nullable CancellationSignal cancellationSignal) {
+        return db.rawQueryWithFactory((database, driver, editTable, program) -> {
+            query.bindTo(program);
+            return new SQLiteCursor(driver, editTable, program);
+        }, query.getQuery(), null, null, cancellationSignal);
+    }
+
+    // SQL'i verilen parametrelerle, tipleriyle bağlayarak çalıştırır.
+    private static Cursor query(SQLiteDatabase db, String sql, List<?> args) {
+        return db.rawQueryWithFactory((database, driver, editTable, program) -> {
+            for (int i = 0; i < args.size(); i++) {
+                Mapper.bindArgument(program, i + 1, args.get(i));
+            }
+            return new SQLiteCursor(driver, editTable, program);
+        }, sql, null, null);
+    }
+
+    // Metrikler açıksa satırı eşleme süresini ölçerek eşler; kapalıyken doğrudan eşler.
+    private static <D> D mapRow(RowMapper<D> rowMapper, Cursor cursor, @Nullable OperationSample sample) throws Exception {
+        if (sample == null) {
+            return rowMapper.mapRow(cursor);
+        }
+        long start = System.nanoTime();
+        D item = rowMapper.mapRow(cursor);
+        sample.addMappingNanos(System.nanoTime() - start);
+        return item;
+    }
+
+    // "?,?,?" şeklinde count adet parametre yer tutucusu üretir.
+    private static String placeholders(int count) {
+        StringBuilder builder = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) builder.append(',');
+            builder.append('?');
+        }
+        return builder.toString();
     }
 
     /**
@@ -184,46 +786,445 @@ public abstract class GenericRepository<T> {
      *
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void deleteAll(DbCallback<Integer> callback) {
-        dbContext.runDbOperation((db) -> {
-            String tableName = Mapper.getTableName(type);
-            int rowsAffected = db.delete(tableName, null, null);
+    public DbTaskHandle<Integer> deleteAll(DbCallback<Integer> callback) {
+        return dbContext.runDbOperation("deleteAll", tableName, (db) -> deleteAll(db), callback, true);
+    }
 
-            // Her durumda, etkilenen satır sayısını başarı olarak döndür
-            // 0 dönerse, bu tablonun zaten boş olduğu anlamına gelir.
-            return new DbResult.Success<>(rowsAffected);
+    DbResult<Integer> deleteAll(SQLiteDatabase db) {
+        dbContext.markTableChanged(tableName);
+        int rowsAffected = db.delete(tableName, null, null);
+        identityMap.clear();
+        dbContext.recordRows(0, rowsAffected);
 
-        }, callback, true);
+        // Her durumda, etkilenen satır sayısını başarı olarak döndür
+        // 0 dönerse, bu tablonun zaten boş olduğu anlamına gelir.
+        return new DbResult.Success<>(rowsAffected);
     }
 
     /**
      * Tüm kayıtları seçmek için kısayol metot.
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void selectAll(DbCallback<ArrayList<T>> callback) {
-        selectWith(Select.from(type), callback);
+    public DbTaskHandle<ArrayList<T>> selectAll(DbCallback<ArrayList<T>> callback) {
+        return selectWith(selectAllQuery, DbPriority.NORMAL, callback);
     }
 
     /**
      * Dinamik olarak oluşturulmuş bir Select komutu ile sorgu çalıştırır.
+     * Sorgu önbelleği açıksa (DbOptions.queryCacheMaxRows) aynı SQL ve parametrelerle
+     * yapılan sorgular, arada tabloya yazma olmadıysa önbellekten döner.
+     *
      * @param command Select komutu nesnesi.
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void selectWith(Select<T> command, DbCallback<ArrayList<T>> callback) {
-        dbContext.runDbOperation((db) -> {
-            ArrayList<T> items = new ArrayList<>();
-            try (Cursor cursor = db.rawQuery(command.getQuery(), command.getWhereArgs())) {
+    public DbTaskHandle<ArrayList<T>> selectWith(Select<T> command, DbCallback<ArrayList<T>> callback) {
+        return selectWith(command, DbPriority.NORMAL, callback);
+    }
+
+    /**
+     * selectWith ile aynıdır; sorgu verilen öncelikle kuyruğa alınır.
+     */
+    public DbTaskHandle<ArrayList<T>> selectWith(Select<T> command, DbPriority priority, DbCallback<ArrayList<T>> callback) {
+        // Sorgu çağrı anındaki haliyle dondurulur; sonradan değiştirilmesi kuyruktaki işlemi etkilemez.
+        return selectWith(command.compile(), priority, callback);
+    }
+
+    /**
+     * Önceden derlenmiş bir sorguyu çalıştırır. SQL metni yeniden üretilmez; aynı sorgu farklı
+     * değerlerle CompiledQuery.withArgs ile tekrar kullanılabilir.
+     *
+     * @param query Select.compile() ile üretilmiş sorgu.
+     * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
+     */
+    public DbTaskHandle<ArrayList<T>> selectWith(CompiledQuery<T> query, DbCallback<ArrayList<T>> callback) {
+        return selectWith(query, DbPriority.NORMAL, callback);
+    }
+
+    /**
+     * selectWith(CompiledQuery, DbCallback) ile aynıdır; sorgu verilen öncelikle kuyruğa alınır.
+     */
+    public DbTaskHandle<ArrayList<T>> selectWith(CompiledQuery<T> query, DbPriority priority, DbCallback<ArrayList<T>> callback) {
+        final QueryCache queryCache = dbContext.getQueryCache();
+        return dbContext.runDbOperation("selectWith", tableName, (db) -> {
+            String cacheKey = null;
+            long tableVersion = 0;
+            if (queryCache.isEnabled()) {
+                cacheKey = QueryCache.keyOf(type, query);
+                // Sürüm sorgudan önce okunur; sorgu sırasında yazma olursa sonuç saklanmaz.
+                tableVersion = queryCache.versionOf(tableName);
+                ArrayList<T> cached = queryCache.get(tableName, cacheKey, tableVersion);
+                if (cached != null) {
+                    return new DbResult.Success<>(cached);
+                }
+            }
+
+            ArrayList<T> items = selectRows(db, query);
+            if (cacheKey != null) {
+                queryCache.put(tableName, cacheKey, tableVersion, items);
+            }
+            return new DbResult.Success<>(items);
+        }, callback, false, priority);
+    }
+
+    // Sorguyu sorgu önbelleğine bakmadan çalıştırır; transaction içindeki okumalar da bunu kullanır.
+    ArrayList<T> selectRows(SQLiteDatabase db, Select<T> command) throws Exception {
+        return selectRows(db, command.compile());
+    }
+
+    ArrayList<T> selectRows(SQLiteDatabase db, CompiledQuery<T> query) throws Exception {
+        ArrayList<T> items = new ArrayList<>();
+        // Sadece tüm sütunları okunan nesneler önbelleğe alınır; kısmi nesneler alınmaz.
+        boolean cacheRows = query.selectsAllColumns();
+        long identityStamp = identityMap.readStamp();
+        OperationSample sample = dbContext.currentSample();
+        long queryStart = dbContext.queryStartNanos();
+        try (Cursor cursor = query(db, query, null)) {
+            if (cursor.moveToFirst()) {
+                // Sütun indeksleri ve alanlar bu cursor için bir kez çözülür.
+                RowMapper<T> rowMapper = Mapper.rowMapperFor(cursor, query.getType());
+                do {
+                    T item = mapRow(rowMapper, cursor, sample);
+                    if (cacheRows) {
+                        identityMap.putIfUnchanged(item, identityStamp);
+                    }
+                    items.add(item);
+                } while (cursor.moveToNext());
+            }
+        }
+        dbContext.queryFinished(db, query, queryStart);
+        dbContext.recordRows(items.size(), 0);
+        return items;
+    }
+
+    /**
+     * Sorguyu hemen çalıştırır ve tablo her değiştiğinde yeniden çalıştırıp sonucu tekrar iletir.
+     * Kısa sürede gelen değişiklikler birleştirilir (DbOptions.invalidationDebounceMs); toplu ekleme
+     * sırasında satır başına değil, değişiklik dalgası başına bir sorgu çalışır.
+     * Dönen tutamaç iptal edilene kadar gözlem sürer; DbCancellables ile yaşam döngüsüne bağlanabilir.
+     *
+     * @param command Select komutu nesnesi.
+     * @param callback İlk sonuç ve her değişiklik sonrası sonuç ile veritabanı thread'inde çağrılır.
+     * @return Gözlemi durduran tutamaç.
+     */
+    public DbCancellable observe(Select<T> command, DbCallback<ArrayList<T>> callback) {
+        return observe(command, DbPriority.NORMAL, callback);
+    }
+
+    /**
+     * observe ile aynıdır; ilk sorgu ve sonraki yeniden sorgular verilen öncelikle kuyruğa alınır.
+     * Gözlem birden çok sonuç ürettiği için tek bir future yerine DbCancellable döner; iptal,
+     * kuyrukta bekleyen yeniden sorguyu da iptal eder.
+     */
+    public DbCancellable observe(Select<T> command, DbPriority priority, DbCallback<ArrayList<T>> callback) {
+        ObservedQuery<T> observedQuery = new ObservedQuery<>(this, command.compile(), priority, callback, dbContext.getInvalidationTracker());
+        observedQuery.start(tableName);
+        return observedQuery;
+    }
+
+    /**
+     * observe ile aynıdır; gözlem owner yok edildiğinde kendiliğinden durur. Ana thread'den çağrılmalıdır.
+     */
+    public DbCancellable observe(LifecycleOwner owner, Select<T> command, DbCallback<ArrayList<T>> callback) {
+        return DbCancellables.bindToDestroy(owner, observe(command, callback));
+    }
+
+    /**
+     * Sorgu sonucunu model yerine verilen DTO tipine eşler. DTO, @DbColumnAnnotation ile işaretli
+     * alanlara ve parametresiz yapıcıya sahip herhangi bir sınıf olabilir (tablo annotation'ı gerekmez).
+     * Sorguda sütun seçilmediyse sadece DTO'nun sütunları okunur; model nesnesi oluşturulmaz.
+     *
+     * @param command Select komutu nesnesi.
+     * @param projectionType Satırların eşleneceği DTO sınıfı.
+     * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
+     */
+    public <D> DbTaskHandle<ArrayList<D>> selectAs(Select<T> command, Class<D> projectionType, DbCallback<ArrayList<D>> callback) {
+        Select<T> query = command;
+        if (command.selectsAllColumns()) {
+            query = command.copy().select(Mapper.getColumnNames(projectionType));
+        }
+        final CompiledQuery<T> projection = query.compile();
+        return dbContext.runDbOperation("selectAs", tableName, (db) -> {
+            ArrayList<D> items = new ArrayList<>();
+            OperationSample sample = dbContext.currentSample();
+            long queryStart = dbContext.queryStartNanos();
+            try (Cursor cursor = query(db, projection, null)) {
                 if (cursor.moveToFirst()) {
+                    RowMapper<D> rowMapper = Mapper.rowMapperFor(cursor, projectionType);
                     do {
-                        T item = Mapper.cursorToObject(cursor, command.getType());
-                        items.add(item);
+                        items.add(mapRow(rowMapper, cursor, sample));
                     } while (cursor.moveToNext());
                 }
             }
+            dbContext.queryFinished(db, projection, queryStart);
+            dbContext.recordRows(items.size(), 0);
             return new DbResult.Success<>(items);
         }, callback, false);
     }
 
+    /**
+     * Sorgu sonucundaki tek bir sütunu long dizisi olarak döndürür (ör. senkronizasyon için id listesi).
+     * Satır başına nesne oluşturulmaz; NULL değerler 0 olarak okunur.
+     *
+     * @param command Select komutu nesnesi; seçili sütunları yok sayılır.
+     * @param column Okunacak sütun.
+     * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
+     */
+    public DbTaskHandle<long[]> selectLongs(Select<T> command, String column, DbCallback<long[]> callback) {
+        final CompiledQuery<T> projection = command.copy().select(column).compile();
+        return dbContext.runDbOperation("selectLongs", tableName, (db) -> {
+            long queryStart = dbContext.queryStartNanos();
+            long[] values;
+            try (Cursor cursor = query(db, projection, null)) {
+                values = new long[cursor.getCount()];
+                int i = 0;
+                while (cursor.moveToNext()) {
+                    values[i++] = cursor.getLong(0);
+                }
+            }
+            dbContext.queryFinished(db, projection, queryStart);
+            dbContext.recordRows(values.length, 0);
+            return new DbResult.Success<>(values);
+        }, callback, false);
+    }
+
+    /**
+     * Sorgu sonucundaki tek bir sütunu int dizisi olarak döndürür (ör. userId listesi).
+     *
+     * @see #selectLongs(Select, String, DbCallback)
+     */
+    public DbTaskHandle<int[]> selectInts(Select<T> command, String column, DbCallback<int[]> callback) {
+        final CompiledQuery<T> projection = command.copy().select(column).compile();
+        return dbContext.runDbOperation("selectInts", tableName, (db) -> {
+            long queryStart = dbContext.queryStartNanos();
+            int[] values;
+            try (Cursor cursor = query(db, projection, null)) {
+                values = new int[cursor.getCount()];
+                int i = 0;
+                while (cursor.moveToNext()) {
+                    values[i++] = cursor.getInt(0);
+                }
+            }
+            dbContext.queryFinished(db, projection, queryStart);
+            dbContext.recordRows(values.length, 0);
+            return new DbResult.Success<>(values);
+        }, callback, false);
+    }
+
+    /**
+     * Sorgu sonucunu listeye toplamadan, cursor ilerledikçe satır satır tüketiciye verir.
+     * Bellek kullanımı sonuç boyutundan bağımsızdır. Tüketici false döndürerek taramayı
+     * erken bitirebilir; dönen tutamaç ile işlem kuyruktayken veya tarama sürerken (SQLite sorgusu
+     * dahil) iptal edilebilir.
+     *
+     * @param command Select komutu nesnesi.
+     * @param consumer Her satır için veritabanı thread'inde çağrılır.
+     * @param callback Tarama bittiğinde okunan satır sayısını alır.
+     * @return İşlemin tutamacı; future okunan satır sayısı ile tamamlanır.
+     */
+    public DbTaskHandle<Integer> selectStream(Select<T> command, RowConsumer<T> consumer, DbCallback<Integer> callback) {
+        return selectStream(command, DbPriority.NORMAL, consumer, callback);
+    }
+
+    /** selectStream ile aynıdır; tarama verilen öncelikle kuyruğa alınır. */
+    public DbTaskHandle<Integer> selectStream(Select<T> command, DbPriority priority, RowConsumer<T> consumer, DbCallback<Integer> callback) {
+        DbCancellationSignal signal = new DbCancellationSignal();
+        return dbContext.runDbOperation("selectStream", tableName, (db) -> {
+            if (signal.isCancelled()) {
+                return DbCancellationSignal.<Integer>cancelledResult();
+            }
+            int rowCount = streamRows(db, command, signal, consumer);
+            return signal.isCancelled() ? DbCancellationSignal.<Integer>cancelledResult() : new DbResult.Success<>(rowCount);
+        }, callback, false, priority).withSignal(signal);
+    }
+
+    /**
+     * Sorgu sonucunu chunkSize büyüklüğünde parçalar halinde veritabanı thread'inde teslim eder.
+     *
+     * @see #selectChunked(Select, int, Executor, ChunkConsumer, DbCallback)
+     */
+    public DbTaskHandle<Integer> selectChunked(Select<T> command, int chunkSize, ChunkConsumer<T> consumer, DbCallback<Integer> callback) {
+        return selectChunked(command, chunkSize, null, DbPriority.NORMAL, consumer, callback);
+    }
+
+    /**
+     * Sorgu sonucunu chunkSize büyüklüğünde parçalar halinde verilen executor üzerinde teslim eder.
+     * Teslim edilmeyi bekleyen parça sayısı DbOptions.streamMaxInFlightChunks ile sınırlıdır;
+     * tüketici yavaşsa cursor okuması bekler, böylece bellek kullanımı sabit kalır.
+     * Executor veritabanı thread'inin kendisi olmamalıdır.
+     *
+     * @param command Select komutu nesnesi.
+     * @param chunkSize Bir parçadaki en fazla satır sayısı.
+     * @param deliveryExecutor Parçaların teslim edileceği executor; null ise veritabanı thread'i.
+     * @param consumer Her parça için çağrılır; false dönerse tarama biter.
+     * @param callback Tüm parçalar teslim edildiğinde okunan satır sayısını alır.
+     * @return İşlemin tutamacı; iptal, tarama sürerken de etkilidir.
+     */
+    public DbTaskHandle<Integer> selectChunked(Select<T> command, int chunkSize, @Nullable Executor deliveryExecutor,
+                                               ChunkConsumer<T> consumer, DbCallback<Integer> callback) {
+        return selectChunked(command, chunkSize, deliveryExecutor, DbPriority.NORMAL, consumer, callback);
+    }
+
+    /** selectChunked ile aynıdır; tarama verilen öncelikle kuyruğa alınır. */
+    public DbTaskHandle<Integer> selectChunked(Select<T> command, int chunkSize, @Nullable Executor deliveryExecutor,
+                                               DbPriority priority, ChunkConsumer<T> consumer, DbCallback<Integer> callback) {
+        DbCancellationSignal signal = new DbCancellationSignal();
+        final int maxInFlight = dbContext.getOptions().streamMaxInFlightChunks;
+        return dbContext.runDbOperation("selectChunked", tableName, (db) -> {
+            if (signal.isCancelled()) {
+                return DbCancellationSignal.<Integer>cancelledResult();
+            }
+            ChunkDispatcher<T> dispatcher = new ChunkDispatcher<>(Math.max(1, chunkSize), deliveryExecutor, maxInFlight, consumer, signal);
+            int rowCount;
+            try {
+                rowCount = streamRows(db, command, signal, dispatcher);
+                dispatcher.flush();
+            } finally {
+                // Hata olsa bile teslim edilmekte olan parçaların bitmesini bekle
+                dispatcher.awaitDelivered();
+            }
+
+            Exception failure = dispatcher.getFailure();
+            if (failure != null) {
+                return new DbResult.Error<Integer>(failure, "Parça tüketilirken hata oluştu: " + failure.getMessage());
+            }
+            return signal.isCancelled() ? DbCancellationSignal.<Integer>cancelledResult() : new DbResult.Success<>(rowCount);
+        }, callback, false, priority).withSignal(signal);
+    }
+
+    /**
+     * Verilen sorguyu keyColumn'a göre artan sırada keyset sayfalama ile gezen bir Pager oluşturur.
+     * Sonraki sayfa arka planda önden yüklenir.
+     *
+     * @param baseQuery Koşulları içeren temel sorgu; sıralama ve limit Pager tarafından eklenir.
+     * @param keyColumn Sıralama sütunu; eşit değerler birincil anahtar ile ayrılır.
+     * @param pageSize Sayfa başına kayıt sayısı.
+     * @throws IllegalArgumentException baseQuery orderBy, after/afterDesc veya limit içeriyorsa.
+     */
+    public Pager<T> pager(Select<T> baseQuery, String keyColumn, int pageSize) {
+        return new Pager<>(this, baseQuery, keyColumn, false, pageSize, true);
+    }
+
+    /**
+     * Keyset sayfalama yapan bir Pager oluşturur.
+     *
+     * @param descending true ise keyColumn'a göre azalan sırada gezilir.
+     * @param prefetch false ise sonraki sayfa önden yüklenmez.
+     */
+    public Pager<T> pager(Select<T> baseQuery, String keyColumn, boolean descending, int pageSize, boolean prefetch) {
+        return new Pager<>(this, baseQuery, keyColumn, descending, pageSize, prefetch);
+    }
+
+    // Cursor'ı ilerletip her satırı eşleyerek tüketiciye verir; okunan satır sayısını döndürür.
+    private int streamRows(SQLiteDatabase db, Select<T> command, DbCancellationSignal signal, RowConsumer<T> consumer) throws Exception {
+        int rowCount = 0;
+        OperationSample sample = dbContext.currentSample();
+        try (Cursor cursor = query(db, command.compile(), signal.getCancellationSignal())) {
+            if (cursor.moveToFirst()) {
+                RowMapper<T> rowMapper = Mapper.rowMapperFor(cursor, command.getType());
+                do {
+                    if (signal.isCancelled()) {
+                        break;
+                    }
+                    rowCount++;
+                    if (!consumer.accept(mapRow(rowMapper, cursor, sample))) {
+                        break;
+                    }
+                } while (cursor.moveToNext());
+            }
+        } catch (OperationCanceledException e) {
+            // Sorgu SQLite tarafında iptal edildi; sonuç çağıran tarafından iptal olarak raporlanır.
+        }
+        dbContext.recordRows(rowCount, 0);
+        return rowCount;
+    }
+
+    /**
+     * Satırları parçalara toplayıp tüketiciye ileten yardımcı. Executor verilmişse
+     * aynı anda en fazla maxInFlight parça teslim sırasında bulunabilir.
+     */
+    private static final class ChunkDispatcher<T> implements RowConsumer<T> {
+        private final int chunkSize;
+        @Nullable
+        private final Executor executor;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final ChunkConsumer<T> consumer;
+        private final DbCancellable signal;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private ArrayList<T> buffer;
+
+        ChunkDispatcher(int chunkSize, @Nullable Executor executor, int maxInFlight, ChunkConsumer<T> consumer, DbCancellable signal) {
+            this.chunkSize = chunkSize;
+            this.executor = executor;
+            this.maxInFlight = maxInFlight;
+            this.inFlight = new Semaphore(maxInFlight);
+            this.consumer = consumer;
+            this.signal = signal;
+            this.buffer = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public boolean accept(T row) throws Exception {
+            buffer.add(row);
+            if (buffer.size() >= chunkSize) {
+                return flush();
+            }
+            return !stopped.get();
+        }
+
+        boolean flush() throws Exception {
+            if (buffer.isEmpty() || stopped.get() || signal.isCancelled()) {
+                return !stopped.get();
+            }
+            final List<T> chunk = buffer;
+            buffer = new ArrayList<>(chunkSize);
+
+            if (executor == null) {
+                if (!consumer.onChunk(chunk)) {
+                    stopped.set(true);
+                }
+                return !stopped.get();
+            }
+
+            // Tüketici geride kaldıysa cursor okumasını burada beklet
+            inFlight.acquire();
+            if (stopped.get() || signal.isCancelled()) {
+                inFlight.release();
+                return false;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        if (!stopped.get() && !signal.isCancelled() && !consumer.onChunk(chunk)) {
+                            stopped.set(true);
+                        }
+                    } catch (Exception e) {
+                        failure.compareAndSet(null, e);
+                        stopped.set(true);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+            return true;
+        }
+
+        void awaitDelivered() throws InterruptedException {
+            if (executor == null) return;
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        @Nullable
+        Exception getFailure() {
+            return failure.get();
+        }
+    }
+
 
     /**
      * Veritabanından belirli bir ID'ye sahip tek bir kaydı getirir.
@@ -231,30 +1232,147 @@ public abstract class GenericRepository<T> {
      * @param id Kaydın birincil anahtar değeri.
      * @param callback İşlemin sonucunu işleyecek geri çağırma (callback) nesnesi.
      */
-    public void getById(Object id, DbCallback<T> callback) {
-        dbContext.runDbOperation((db) -> {
-            String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+    public DbTaskHandle<T> getById(Object id, DbCallback<T> callback) {
+        return getById(id, DbPriority.NORMAL, callback);
+    }
 
-            Select<T> command = Select.from(type)
+    /**
+     * getById ile aynıdır; okuma verilen öncelikle kuyruğa alınır. Ekranın beklediği okumalar
+     * DbPriority.INTERACTIVE ile gönderilirse kuyruktaki arka plan işlemlerinin önüne geçer.
+     */
+    public DbTaskHandle<T> getById(Object id, DbPriority priority, DbCallback<T> callback) {
+        return dbContext.runDbOperation("getById", tableName, (db) -> getById(db, id), callback, false, priority);
+    }
+
+    // "SELECT * ... WHERE pk = ? LIMIT 1"; ilk kullanımda derlenir.
+    private CompiledQuery<T> byIdQuery() {
+        CompiledQuery<T> query = byIdQuery;
+        if (query == null) {
+            query = Select.from(type)
                     .where()
-                    .Equals(primaryKeyColumn, id)
-                    .limit(1); // Sadece bir kayıt istediğimizi belirtir.
+                    .Equals(Mapper.getPrimaryKeyColumnName(type), null)
+                    .limit(1) // Sadece bir kayıt istediğimizi belirtir.
+                    .compile();
+            byIdQuery = query;
+        }
+        return query;
+    }
 
-            T resultItem = null;
-            try (Cursor cursor = db.rawQuery(command.getQuery(), command.getWhereArgs())) {
-                if (cursor.moveToFirst()) {
-                    resultItem = Mapper.cursorToObject(cursor, command.getType());
-                }
+    DbResult<T> getById(SQLiteDatabase db, Object id) {
+        // Aynı repository üzerinden yakın zamanda okunan/yazılan kayıt için SQLite'a gidilmez
+        T cached = identityMap.get(id);
+        if (cached != null) {
+            return new DbResult.Success<>(cached);
+        }
+
+        CompiledQuery<T> command = byIdQuery().withArgs(id);
+
+        T resultItem = null;
+        // Okuma sırasında kayıt silinir veya güncellenirse okunan eski nesne önbelleğe eklenmez.
+        long identityStamp = identityMap.readStamp();
+        long queryStart = dbContext.queryStartNanos();
+        try (Cursor cursor = query(db, command, null)) {
+            if (cursor.moveToFirst()) {
+                resultItem = Mapper.cursorToObject(cursor, command.getType());
             }
+        }
+        dbContext.queryFinished(db, command, queryStart);
 
-            if (resultItem == null) {
-                return new DbResult.Error<>(new Exception("Kayıt bulunamadı."), "Belirtilen ID'ye sahip kayıt bulunamadı.");
-            }
+        if (resultItem == null) {
+            return new DbResult.Error<>(new Exception("Kayıt bulunamadı."), "Belirtilen ID'ye sahip kayıt bulunamadı.");
+        }
 
-            return new DbResult.Success<>(resultItem);
+        dbContext.recordRows(1, 0);
+        identityMap.putIfUnchanged(resultItem, identityStamp);
+        return new DbResult.Success<>(resultItem);
+    }
 
+    /**
+     * Verilen ID'lere sahip kayıtları "SELECT ... WHERE pk IN (...)" ile tek işlemde getirir.
+     * ID'ler SQLite parametre sınırına (SQLITE_MAX_VARIABLES) göre parçalanır. Nesne önbelleğinde
+     * bulunan kayıtlar için SQLite'a gidilmez. Sonuç istenen ID sırasındadır; bulunamayan ID'ler atlanır.
+     *
+     * @param ids Getirilecek kayıtların birincil anahtar değerleri.
+     * @param callback Bulunan kayıtları ID sırasıyla alır.
+     */
+    public DbTaskHandle<ArrayList<T>> getByIds(Collection<?> ids, DbCallback<ArrayList<T>> callback) {
+        final ArrayList<Object> idList = new ArrayList<>(ids);
+        return dbContext.runDbOperation("getByIds", tableName, (db) -> {
+            HashMap<String, T> found = findByIds(db, idList);
+            ArrayList<T> items = new ArrayList<>(found.size());
+            for (Object id : idList) {
+                T item = found.get(Mapper.toSqlArgument(id));
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return new DbResult.Success<>(items);
         }, callback, false);
     }
+
+    /**
+     * getByIds ile aynıdır; sonuç, istenen ID sırasını koruyan ID -> kayıt eşlemesidir.
+     * Bulunamayan ID'ler eşlemede yer almaz.
+     */
+    public DbTaskHandle<Map<Object, T>> getByIdsAsMap(Collection<?> ids, DbCallback<Map<Object, T>> callback) {
+        final ArrayList<Object> idList = new ArrayList<>(ids);
+        return dbContext.runDbOperation("getByIds", tableName, (db) -> new DbResult.Success<>(getByIds(db, idList)), callback, false);
+    }
+
+    Map<Object, T> getByIds(SQLiteDatabase db, List<Object> idList) throws Exception {
+        HashMap<String, T> found = findByIds(db, idList);
+        LinkedHashMap<Object, T> items = new LinkedHashMap<>();
+        for (Object id : idList) {
+            T item = found.get(Mapper.toSqlArgument(id));
+            if (item != null) {
+                items.put(id, item);
+            }
+        }
+        return items;
+    }
+
+    // Kayıtları birincil anahtarın metin haline (Mapper.toSqlArgument) göre döndürür.
+    private HashMap<String, T> findByIds(SQLiteDatabase db, List<Object> idList) throws Exception {
+        HashMap<String, T> found = new HashMap<>();
+        long identityStamp = identityMap.readStamp();
+        ArrayList<Object> missing = new ArrayList<>();
+        HashSet<String> missingKeys = new HashSet<>();
+        for (Object id : idList) {
+            String key = Mapper.toSqlArgument(id);
+            if (found.containsKey(key) || missingKeys.contains(key)) continue;
+            T cached = identityMap.get(id);
+            if (cached != null) {
+                found.put(key, cached);
+            } else {
+                missing.add(id);
+                missingKeys.add(key);
+            }
+        }
+
+        String primaryKeyColumn = Mapper.getPrimaryKeyColumnName(type);
+        OperationSample sample = dbContext.currentSample();
+        int rowsRead = 0;
+        for (int start = 0; start < missing.size(); start += SQLITE_MAX_VARIABLES) {
+            List<Object> chunk = missing.subList(start, Math.min(start + SQLITE_MAX_VARIABLES, missing.size()));
+            // Tam parçalar aynı SQL'i kullanır.
+            String sql = "SELECT * FROM " + tableName + " WHERE " + primaryKeyColumn + " IN (" + placeholders(chunk.size()) + ")";
+            long queryStart = dbContext.queryStartNanos();
+            try (Cursor cursor = query(db, sql, chunk)) {
+                if (cursor.moveToFirst()) {
+                    RowMapper<T> rowMapper = Mapper.rowMapperFor(cursor, type);
+                    do {
+                        T item = mapRow(rowMapper, cursor, sample);
+                        identityMap.putIfUnchanged(item, identityStamp);
+                        found.put(Mapper.toSqlArgument(Mapper.getPrimaryKeyValue(item)), item);
+                        rowsRead++;
+                    } while (cursor.moveToNext());
+                }
+            }
+            dbContext.queryFinished(db, sql, chunk, queryStart);
+        }
+        dbContext.recordRows(rowsRead, 0);
+        return found;
+    }
 }
 
 //public abstract class GenericRepository<T> {
@@ -0,0 +1,142 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lib.persistence.profile.Mapper;
+
+/**
+ * Model tipi başına, birincil anahtara göre tutulan sınırlı boyutlu birinci seviye nesne önbelleği.
+ * Okuma ve yazma işlemlerinde doldurulur, silmelerde geçersiz kılınır; kapasite aşıldığında
+ * en uzun süre kullanılmayan kayıt çıkarılır (LRU). ADbContext tarafından tip başına bir tane
+ * oluşturulur; aynı tipin tüm repository örnekleri aynı önbelleği paylaşır.
+ *
+ * WAL modunda okumalar yazıcıyla paralel çalıştığı için okunan satır, okuma bitene kadar
+ * eskimiş olabilir. Bu yüzden okuma yolları nesneyi {@link #putIfUnchanged} ile, okuma başlamadan
+ * önce alınan {@link #readStamp()} değeriyle ekler. Tabloya yazan her işlem başlarken ve commit
+ * edilip bittikten sonra yazma sırası artırılır (tek değer: yazma sürüyor); arada yazma olduysa
+ * veya sürüyorsa okunan nesne eklenmez. Yazma yolları kalıcı değeri bildiği için put/remove kullanır.
+ * Bu değer, runInTransaction içinde olduğu gibi henüz commit edilmemiş olabilir; bu yüzden yazma
+ * sürerken {@link #get} her zaman ıskalar ve okuyucu commit edilmiş satırı veritabanından okur.
+ *
+ * Anahtarlar Mapper.toSqlArgument ile metne çevrilir; böylece 5, 5L ve "5" aynı kayda karşılık gelir.
+ * Önbellekten dönen nesne paylaşılan örnektir, çağıran tarafından değiştirilmemelidir.
+ * Kapasite 0 ise önbellek devre dışıdır.
+ *
+ * @param <T> Saklanan model tipi.
+ */
+public final class IdentityMap<T> {
+
+    private final String tableName;
+    private final int capacity;
+    private final LinkedHashMap<String, T> entries;
+    // Yazma hattında bu tabloya yazan işlem başlarken ve bittiğinde artar.
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    IdentityMap(String tableName, int capacity) {
+        this.tableName = tableName;
+        this.capacity = Math.max(0, capacity);
+        // accessOrder = true: get() ile erişilen kayıt listenin sonuna taşınır (LRU).
+        this.entries = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                if (size() > IdentityMap.this.capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /** Birincil anahtara karşılık gelen nesneyi döndürür; yoksa veya tabloya yazma sürüyorsa null. */
+    @Nullable
+    synchronized T get(Object primaryKey) {
+        if (!isEnabled() || primaryKey == null) return null;
+        // Yazma sürerken eklenen nesneler commit edilmemiş olabilir; commit'e kadar kimseye verilmez.
+        T entity = (writeSequence.get() & 1) == 0 ? entries.get(keyOf(primaryKey)) : null;
+        if (entity != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return entity;
+    }
+
+    /** Nesneyi kendi birincil anahtarı ile saklar; anahtarı null olan nesneler saklanmaz. */
+    synchronized void put(T entity) {
+        if (!isEnabled() || entity == null) return;
+        Object primaryKey = Mapper.getPrimaryKeyValue(entity);
+        if (primaryKey != null) {
+            entries.put(keyOf(primaryKey), entity);
+        }
+    }
+
+    /** Okuma başlamadan önce alınır; okunan nesneler bu değerle putIfUnchanged'e verilir. */
+    long readStamp() {
+        return writeSequence.get();
+    }
+
+    /**
+     * Nesneyi, okuma başladığından beri tabloya yazma başlamadıysa ve o sırada sürmüyorsa saklar.
+     * Kontrol ve ekleme kilit altında yapılır; yazmanın remove/clear çağrıları bundan sonra çalışır.
+     */
+    synchronized void putIfUnchanged(T entity, long stamp) {
+        if ((stamp & 1) != 0 || writeSequence.get() != stamp) return;
+        put(entity);
+    }
+
+    /** Yazma hattında, tabloya yazan işlem başlarken ve commit sonrası bittiğinde çağrılır. */
+    void advanceWriteSequence() {
+        writeSequence.incrementAndGet();
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    synchronized void remove(Object primaryKey) {
+        if (!isEnabled() || primaryKey == null) return;
+        entries.remove(keyOf(primaryKey));
+    }
+
+    /** Tüm kayıtları çıkarır; sayaçlar korunur. */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static String keyOf(Object primaryKey) {
+        return Mapper.toSqlArgument(primaryKey);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,126 @@
+package lib.persistence;
+
+import android.util.Log;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Yazma işlemlerinin hangi tabloları değiştirdiğini izler ve ilgili gözlemcileri haberdar eder.
+ *
+ * Değişiklikler ADbContext tarafından yazma işlemi bittikten sonra bildirilir. Bildirimler
+ * DbOptions.invalidationDebounceMs süresince biriktirilir; bu sürede gelen tüm değişiklikler
+ * için her gözlemci en fazla bir kez çağrılır. Böylece art arda yapılan çok sayıda yazma,
+ * satır başına değil değişiklik dalgası başına bir yeniden sorguya yol açar.
+ */
+public final class InvalidationTracker {
+
+    /** Gözlenen tablolardan biri değiştiğinde bakım thread'inde çağrılır. */
+    public interface Observer {
+        void onInvalidated(Set<String> tables);
+    }
+
+    private static final class Registration {
+        final Observer observer;
+        final Set<String> tables;
+
+        Registration(Observer observer, Set<String> tables) {
+            this.observer = observer;
+            this.tables = tables;
+        }
+
+        boolean matches(Set<String> changedTables) {
+            if (changedTables.contains(QueryCache.ALL_TABLES) || tables.contains(QueryCache.ALL_TABLES)) {
+                return true;
+            }
+            for (String table : changedTables) {
+                if (tables.contains(table)) return true;
+            }
+            return false;
+        }
+    }
+
+    private static final String TAG = "InvalidationTracker";
+
+    private final ScheduledExecutorService scheduler;
+    private final long debounceMs;
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    // Henüz bildirilmemiş değişiklikler; this ile korunur.
+    private Set<String> pendingTables = new HashSet<>();
+    private boolean flushScheduled;
+
+    InvalidationTracker(ScheduledExecutorService scheduler, long debounceMs) {
+        this.scheduler = scheduler;
+        this.debounceMs = Math.max(0, debounceMs);
+    }
+
+    /**
+     * Verilen tablolar değiştiğinde çağrılacak gözlemciyi ekler.
+     * Tablo verilmezse tüm değişikliklerde çağrılır.
+     */
+    public void addObserver(Observer observer, String... tables) {
+        Set<String> names = new HashSet<>();
+        for (String table : tables) {
+            names.add(normalize(table));
+        }
+        if (names.isEmpty()) {
+            names.add(QueryCache.ALL_TABLES);
+        }
+        registrations.add(new Registration(observer, names));
+    }
+
+    public void removeObserver(Observer observer) {
+        for (Registration registration : registrations) {
+            if (registration.observer == observer) {
+                registrations.remove(registration);
+            }
+        }
+    }
+
+    public int getObserverCount() {
+        return registrations.size();
+    }
+
+    /** Yazma işlemi bittikten sonra değişen tablolarla çağrılır. */
+    void notifyTablesChanged(Collection<String> tables) {
+        if (registrations.isEmpty() || tables.isEmpty()) return;
+        synchronized (this) {
+            for (String table : tables) {
+                pendingTables.add(normalize(table));
+            }
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        scheduler.schedule(this::flush, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Set<String> changedTables;
+        synchronized (this) {
+            changedTables = Collections.unmodifiableSet(pendingTables);
+            pendingTables = new HashSet<>();
+            flushScheduled = false;
+        }
+        for (Registration registration : registrations) {
+            if (registration.matches(changedTables)) {
+                try {
+                    registration.observer.onInvalidated(changedTables);
+                } catch (RuntimeException e) {
+                    // Bir gözlemcinin hatası diğerlerinin bildirimini engellemesin
+                    Log.e(TAG, "Gözlemci hatası.", e);
+                }
+            }
+        }
+    }
+
+    private static String normalize(String table) {
+        return QueryCache.ALL_TABLES.equals(table) ? table : table.toLowerCase(Locale.ROOT);
+    }
+}
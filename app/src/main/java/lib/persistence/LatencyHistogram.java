@@ -0,0 +1,76 @@
+package lib.persistence;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Süreleri ikinin kuvvetleri sınırlı kovalarda sayan, kilitsiz ve kayıt sırasında bellek ayırmayan
+ * histogram. Kova i, [2^(i-1), 2^i) nanosaniye aralığını tutar; yüzdelikler kovanın üst sınırı
+ * olarak döner, yani en fazla iki kat hatalı, üstten tahmindir.
+ */
+public final class LatencyHistogram {
+
+    // 2^40 ns ≈ 18 dakika; daha uzun süreler son kovaya yazılır.
+    private static final int BUCKET_COUNT = 41;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos) {
+        if (nanos < 0) return;
+        int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public double getMeanMs() {
+        long n = count.get();
+        return n == 0 ? 0 : totalNanos.get() / (n * 1_000_000.0);
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Verilen yüzdelik (0..100) için süre (ms). Kayıt yoksa 0.
+     */
+    public double getPercentileMs(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long target = (long) Math.ceil(n * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(1, target)) {
+                // Üst sınır, gözlenen en büyük değeri aşmasın
+                return Math.min(1L << i, maxNanos.get()) / 1_000_000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), getPercentileMs(50), getPercentileMs(95), getPercentileMs(99), getMaxMs());
+    }
+}
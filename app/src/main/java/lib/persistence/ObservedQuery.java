@@ -0,0 +1,95 @@
+package lib.persistence;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import lib.persistence.command.query.CompiledQuery;
+
+/**
+ * GenericRepository.observe ile oluşturulan, tablosu değiştikçe kendini yeniden çalıştıran sorgu.
+ * Sorgu çalışırken gelen bildirimler birleştirilir; sorgu bitince en fazla bir kez daha çalışır.
+ * İptal edildiğinde kuyrukta bekleyen sorgu da iptal edilir.
+ *
+ * @param <T> Sorgunun model tipi.
+ */
+final class ObservedQuery<T> implements DbCancellable, InvalidationTracker.Observer {
+
+    private final GenericRepository<T> repository;
+    private final CompiledQuery<T> query;
+    private final DbCallback<ArrayList<T>> callback;
+    private final InvalidationTracker tracker;
+    private final DbPriority priority;
+
+    private final Object lock = new Object();
+    private volatile boolean cancelled;
+    private boolean running;
+    private boolean dirty;
+    // Son gönderilen sorgunun tutamacı; lock ile korunur.
+    private DbTaskHandle<ArrayList<T>> pending;
+
+    ObservedQuery(GenericRepository<T> repository, CompiledQuery<T> query, DbPriority priority,
+                  DbCallback<ArrayList<T>> callback, InvalidationTracker tracker) {
+        this.repository = repository;
+        this.query = query;
+        this.priority = priority;
+        this.callback = callback;
+        this.tracker = tracker;
+    }
+
+    void start(String tableName) {
+        tracker.addObserver(this, tableName);
+        requery();
+    }
+
+    @Override
+    public void onInvalidated(Set<String> tables) {
+        requery();
+    }
+
+    private void requery() {
+        synchronized (lock) {
+            if (cancelled) return;
+            if (running) {
+                // Çalışan sorgu eski veriyi okumuş olabilir; bitince bir kez daha çalıştır.
+                dirty = true;
+                return;
+            }
+            running = true;
+        }
+        DbTaskHandle<ArrayList<T>> handle = repository.selectWith(query, priority, result -> {
+            if (!cancelled) {
+                callback.onResult(result);
+            }
+            boolean again;
+            synchronized (lock) {
+                running = false;
+                again = dirty;
+                dirty = false;
+            }
+            if (again) {
+                requery();
+            }
+        });
+        synchronized (lock) {
+            pending = handle;
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        tracker.removeObserver(this);
+        DbTaskHandle<ArrayList<T>> handle;
+        synchronized (lock) {
+            handle = pending;
+        }
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
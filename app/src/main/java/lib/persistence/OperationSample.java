@@ -0,0 +1,41 @@
+package lib.persistence;
+
+/**
+ * Çalışan bir işlemin ölçümleri. Her veritabanı thread'i tek bir örneği yeniden kullanır;
+ * işlem başına nesne oluşturulmaz. Sadece işlemin çalıştığı thread'den erişilir.
+ */
+final class OperationSample {
+    String operation;
+    String table;
+    boolean active;
+    boolean success;
+    long queueWaitNanos;
+    // Kilit beklenmeyen (okuma hattı) işlemlerde -1
+    long lockWaitNanos;
+    long executeNanos;
+    long mappingNanos;
+    long rowsRead;
+    long rowsWritten;
+
+    void begin(String operation, String table, long queueWaitNanos, long lockWaitNanos) {
+        this.operation = operation;
+        this.table = table;
+        this.active = true;
+        this.success = false;
+        this.queueWaitNanos = queueWaitNanos;
+        this.lockWaitNanos = lockWaitNanos;
+        this.executeNanos = 0;
+        this.mappingNanos = 0;
+        this.rowsRead = 0;
+        this.rowsWritten = 0;
+    }
+
+    void addRows(long read, long written) {
+        rowsRead += read;
+        rowsWritten += written;
+    }
+
+    void addMappingNanos(long nanos) {
+        mappingNanos += nanos;
+    }
+}
@@ -0,0 +1,106 @@
+package lib.persistence;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bir işlem tipi (ör. "selectWith") ve tablo çifti için biriken metrikler.
+ */
+public final class OperationStats {
+
+    private final String operation;
+    private final String table;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram lockWait = new LatencyHistogram();
+    private final LatencyHistogram sqlTime = new LatencyHistogram();
+    private final LatencyHistogram mappingTime = new LatencyHistogram();
+
+    OperationStats(String operation, String table) {
+        this.operation = operation;
+        this.table = table;
+    }
+
+    void record(OperationSample sample) {
+        count.incrementAndGet();
+        if (!sample.success) {
+            errorCount.incrementAndGet();
+        }
+        rowsRead.addAndGet(sample.rowsRead);
+        rowsWritten.addAndGet(sample.rowsWritten);
+        queueWait.record(sample.queueWaitNanos);
+        if (sample.lockWaitNanos >= 0) {
+            lockWait.record(sample.lockWaitNanos);
+        }
+        // Eşleme, çalışma süresinin içindedir; SQL süresi ikisinin farkıdır.
+        sqlTime.record(Math.max(0, sample.executeNanos - sample.mappingNanos));
+        if (sample.mappingNanos > 0) {
+            mappingTime.record(sample.mappingNanos);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /** İşlemin öncelik kuyruğunda beklediği süre. */
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    /** Yazma hattı kilidini bekleme süresi; sadece yazma hattındaki işlemler için kaydedilir. */
+    public LatencyHistogram getLockWait() {
+        return lockWait;
+    }
+
+    /** İşlemin veritabanında geçen süresi (satır eşleme hariç). */
+    public LatencyHistogram getSqlTime() {
+        return sqlTime;
+    }
+
+    /** Cursor satırlarının nesnelere eşlenmesinde geçen süre. */
+    public LatencyHistogram getMappingTime() {
+        return mappingTime;
+    }
+
+    void reset() {
+        count.set(0);
+        errorCount.set(0);
+        rowsRead.set(0);
+        rowsWritten.set(0);
+        queueWait.reset();
+        lockWait.reset();
+        sqlTime.reset();
+        mappingTime.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s %s: count=%d errors=%d rowsRead=%d rowsWritten=%d%n  queue: %s%n  lock:  %s%n  sql:   %s%n  map:   %s",
+                operation, table, getCount(), getErrorCount(), getRowsRead(), getRowsWritten(),
+                queueWait, lockWait, sqlTime, mappingTime);
+    }
+}
@@ -0,0 +1,36 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Pager tarafından yüklenen tek bir sayfa.
+ *
+ * @param <T> Sayfadaki kayıtların tipi.
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    @Nullable
+    private final PageToken nextToken;
+
+    Page(List<T> items, @Nullable PageToken nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /** Sonraki sayfanın işareti; son sayfada null. */
+    @Nullable
+    public PageToken getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,52 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.io.Serializable;
+
+/**
+ * Keyset sayfalamada bir sonraki sayfanın nereden başlayacağını tutan değiştirilemez işaret.
+ * Önceki sayfanın son satırındaki sıralama sütunu ve birincil anahtar değerlerini saklar;
+ * Serializable olduğu için ekran yeniden oluşturulduğunda Bundle içinde korunabilir.
+ */
+public final class PageToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String lastValue;
+    @Nullable
+    private final String lastKey;
+
+    PageToken(String lastValue, @Nullable String lastKey) {
+        this.lastValue = lastValue;
+        this.lastKey = lastKey;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    @Nullable
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageToken)) return false;
+        PageToken other = (PageToken) o;
+        return lastValue.equals(other.lastValue)
+                && (lastKey == null ? other.lastKey == null : lastKey.equals(other.lastKey));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * lastValue.hashCode() + (lastKey != null ? lastKey.hashCode() : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "PageToken{" + lastValue + ", " + lastKey + "}";
+    }
+}
@@ -0,0 +1,165 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+import lib.persistence.command.query.Select;
+import lib.persistence.profile.Mapper;
+
+/**
+ * GenericRepository üzerinde keyset (seek) sayfalama yapan yardımcı.
+ * Her sayfa, önceki sayfanın son satırından sonrasını (sıralama sütunu + birincil anahtar)
+ * seçer; LIMIT/OFFSET'te olduğu gibi atlanan satırlar taranmaz.
+ *
+ * Bir sayfa teslim edilmeden hemen önce bir sonraki sayfa arka planda yüklenmeye başlar;
+ * çağıran o sayfayı istediğinde sonuç genellikle hazırdır. Geri çağırmalar veritabanı
+ * thread'inde çalışır. Temel sorgu sadece koşul içermelidir; sıralama ve LIMIT Pager'a aittir.
+ *
+ * @param <T> Sayfalanan model tipi.
+ */
+public final class Pager<T> {
+
+    private final GenericRepository<T> repository;
+    private final Select<T> baseQuery;
+    private final String keyColumn;
+    private final boolean descending;
+    private final int pageSize;
+    private final boolean prefetch;
+
+    private final Object prefetchLock = new Object();
+    @Nullable
+    private PageToken prefetchToken;
+    @Nullable
+    private DbResult<Page<T>> prefetchResult;
+    @Nullable
+    private DbCallback<Page<T>> prefetchWaiter;
+
+    Pager(GenericRepository<T> repository, Select<T> baseQuery, String keyColumn,
+          boolean descending, int pageSize, boolean prefetch) {
+        // Sayfa sorgusu keyset sıralamasını ve LIMIT'i kendisi ekler; temel sorgudakiler
+        // sıralamayı bozar veya ikinci bir LIMIT ile sayfa boyutunu geçersiz kılardı.
+        if (baseQuery.hasOrderBy() || baseQuery.hasLimit()) {
+            throw new IllegalArgumentException("Pager temel sorgusu ORDER BY veya LIMIT içeremez: " + baseQuery.getQuery());
+        }
+        this.repository = repository;
+        this.baseQuery = baseQuery.copy();
+        this.keyColumn = keyColumn;
+        this.descending = descending;
+        this.pageSize = Math.max(1, pageSize);
+        this.prefetch = prefetch;
+    }
+
+    /** İlk sayfayı yükler. */
+    public void first(DbCallback<Page<T>> callback) {
+        load(null, callback);
+    }
+
+    /**
+     * Verilen işaretten sonraki sayfayı yükler. İşaret önceden yüklenen sayfaya aitse
+     * veritabanına tekrar gidilmez.
+     *
+     * @param token Önceki sayfanın getNextToken() değeri; ilk sayfa için null.
+     * @param callback Sayfa veya hata ile çağrılır.
+     */
+    public void load(@Nullable PageToken token, DbCallback<Page<T>> callback) {
+        DbResult<Page<T>> ready = null;
+        synchronized (prefetchLock) {
+            if (token != null && token.equals(prefetchToken)) {
+                if (prefetchResult == null) {
+                    // Önden yükleme sürüyor; bitince bu çağırana teslim edilir.
+                    prefetchWaiter = callback;
+                    return;
+                }
+                ready = prefetchResult;
+                clearPrefetch();
+            }
+        }
+        if (ready != null) {
+            deliver(ready, callback);
+            return;
+        }
+        fetch(token, result -> deliver(result, callback));
+    }
+
+    /** Önden yüklenmiş sayfayı bırakır; veriler değiştiğinde çağrılabilir. */
+    public void invalidate() {
+        synchronized (prefetchLock) {
+            clearPrefetch();
+        }
+    }
+
+    private void deliver(DbResult<Page<T>> result, DbCallback<Page<T>> callback) {
+        if (prefetch && result instanceof DbResult.Success) {
+            PageToken next = result.getData().getNextToken();
+            if (next != null) {
+                startPrefetch(next);
+            }
+        }
+        callback.onResult(result);
+    }
+
+    private void startPrefetch(PageToken token) {
+        synchronized (prefetchLock) {
+            if (token.equals(prefetchToken)) {
+                return;
+            }
+            prefetchToken = token;
+            prefetchResult = null;
+            prefetchWaiter = null;
+        }
+        fetch(token, result -> {
+            DbCallback<Page<T>> waiter;
+            synchronized (prefetchLock) {
+                if (!token.equals(prefetchToken)) {
+                    return; // Bu arada geçersiz kılındı
+                }
+                waiter = prefetchWaiter;
+                if (waiter == null) {
+                    prefetchResult = result;
+                    return;
+                }
+                clearPrefetch();
+            }
+            deliver(result, waiter);
+        });
+    }
+
+    private void clearPrefetch() {
+        prefetchToken = null;
+        prefetchResult = null;
+        prefetchWaiter = null;
+    }
+
+    private void fetch(@Nullable PageToken token, DbCallback<Page<T>> callback) {
+        Select<T> query = baseQuery.copy();
+        String lastValue = token != null ? token.getLastValue() : null;
+        String lastKey = token != null ? token.getLastKey() : null;
+        if (descending) {
+            query.afterDesc(keyColumn, lastValue, lastKey);
+        } else {
+            query.after(keyColumn, lastValue, lastKey);
+        }
+        // Bir fazla satır istenir; gelirse sonraki sayfa vardır.
+        query.limit(pageSize + 1);
+
+        repository.selectWith(query, result -> {
+            if (!(result instanceof DbResult.Success)) {
+                DbResult.Error<ArrayList<T>> error = (DbResult.Error<ArrayList<T>>) result;
+                callback.onResult(new DbResult.Error<>(error.getException(), error.getErrorMessage()));
+                return;
+            }
+            ArrayList<T> rows = result.getData();
+            PageToken nextToken = null;
+            if (rows.size() > pageSize) {
+                rows = new ArrayList<>(rows.subList(0, pageSize));
+                T last = rows.get(rows.size() - 1);
+                Object lastKeyValue = Mapper.getPrimaryKeyValue(last);
+                nextToken = new PageToken(
+                        Mapper.toSqlArgument(Mapper.getColumnValue(last, keyColumn)),
+                        lastKeyValue != null ? Mapper.toSqlArgument(lastKeyValue) : null);
+            }
+            callback.onResult(new DbResult.Success<>(new Page<>(rows, nextToken)));
+        });
+    }
+}
@@ -0,0 +1,228 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lib.persistence.command.query.CompiledQuery;
+import lib.persistence.profile.Mapper;
+
+/**
+ * Select sorgularının sonuçlarını (SQL + parametreler) anahtarıyla saklayan ikinci seviye önbellek.
+ *
+ * Her tablonun yazma işlemleriyle artan bir sürüm numarası vardır. Kayıt, sorgu başlamadan önce
+ * okunan sürümle saklanır; sürüm değişmişse kayıt eski kabul edilip atlanır. Böylece yazmalarda
+ * önbellek taranmaz, sadece sayaç artırılır. Toplam saklanan satır sayısı sınırlıdır; aşıldığında
+ * en uzun süre kullanılmayan sonuçlar çıkarılır (LRU).
+ *
+ * Sürümler, yazma hattındaki işlem bittikten (transaction commit edildikten) sonra ADbContext
+ * tarafından artırılır. Kapasite 0 ise önbellek devre dışıdır.
+ */
+public final class QueryCache {
+
+    /** Hangi tabloyu etkilediği bilinmeyen yazmalar (ör. execSql) için tüm sürümleri geçersiz kılar. */
+    static final String ALL_TABLES = "*";
+
+    private static final class Entry {
+        final long version;
+        final ArrayList<?> rows;
+
+        Entry(long version, ArrayList<?> rows) {
+            this.version = version;
+            this.rows = rows;
+        }
+    }
+
+    private static final class TableStats {
+        long hitCount;
+        long missCount;
+    }
+
+    private final int maxRows;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    // Tüm tabloları etkileyen yazmalarda artar; tablo sürümüne eklenerek kullanılır.
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, TableStats> stats = new HashMap<>();
+    private int cachedRows;
+    private long evictionCount;
+
+    QueryCache(int maxRows) {
+        this.maxRows = Math.max(0, maxRows);
+    }
+
+    public boolean isEnabled() {
+        return maxRows > 0;
+    }
+
+    /**
+     * Tablonun güncel sürümü. Tablo ve genel sürüm sadece arttığı için toplamları da
+     * sadece artar; eşit değer, arada yazma olmadığı anlamına gelir.
+     */
+    long versionOf(String table) {
+        AtomicLong version = tableVersions.get(normalize(table));
+        return (version != null ? version.get() : 0) + globalVersion.get();
+    }
+
+    /** Tablonun sürümünü artırır; o tabloya ait saklanan sonuçlar artık kullanılmaz. */
+    void bumpVersion(String table) {
+        if (ALL_TABLES.equals(table)) {
+            globalVersion.incrementAndGet();
+            return;
+        }
+        tableVersions.computeIfAbsent(normalize(table), t -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Sonucun anahtarı: model tipi, SQL ve her parametrenin SQLite'a bağlandığı tür ile değeri.
+     * Parametreler Mapper.bindArgument ile tipleriyle bağlandığı için 1 ve "1" farklı satırlar
+     * döndürebilir; sadece metin hali kullanılsaydı biri diğerinin sonucunu alırdı. Aynı şekilde
+     * bağlanan değerler (ör. 1, 1L ve true) aynı anahtarı üretir.
+     */
+    static String keyOf(Class<?> type, CompiledQuery<?> query) {
+        String sql = query.getQuery();
+        StringBuilder key = new StringBuilder(type.getName().length() + sql.length() + 16 * query.getArgCount())
+                .append(type.getName()).append('\u0000').append(sql);
+        for (int i = 0; i < query.getArgCount(); i++) {
+            key.append('\u0000');
+            appendArgument(key, query.getArg(i));
+        }
+        return key.toString();
+    }
+
+    // Tür etiketi bindArgument'in seçtiği bağlama türüdür: N(ULL), I(NTEGER), R(EAL), B(LOB), T(EXT).
+    private static void appendArgument(StringBuilder key, Object value) {
+        if (value == null) {
+            key.append('N');
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            key.append('I').append(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            key.append('I').append((Boolean) value ? 1 : 0);
+        } else if (value instanceof Double || value instanceof Float) {
+            key.append('R').append(((Number) value).doubleValue());
+        } else if (value instanceof byte[]) {
+            key.append('B');
+            for (byte b : (byte[]) value) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+        } else {
+            // Metin ayırıcı karakteri içerebilir; uzunluk ön eki parametre sınırlarını belirsizlikten kurtarır.
+            String text = Mapper.toSqlArgument(value);
+            key.append('T').append(text.length()).append(':').append(text);
+        }
+    }
+
+    /**
+     * Verilen sürümde geçerli bir sonuç varsa kopyasını döndürür; yoksa null.
+     * Sürümü eskimiş kayıt bulunursa çıkarılır.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    synchronized <R> ArrayList<R> get(String table, String key, long version) {
+        if (!isEnabled()) return null;
+        TableStats tableStats = statsOf(table);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version != version) {
+            removeEntry(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            tableStats.missCount++;
+            return null;
+        }
+        tableStats.hitCount++;
+        // Çağıran listeyi değiştirebilir; saklanan liste paylaşılmaz.
+        return new ArrayList<>((ArrayList<R>) entry.rows);
+    }
+
+    /**
+     * Sorgu başlamadan önce okunan sürümle sonucu saklar. Bu arada tabloya yazma olduysa
+     * sonuç eski olabileceği için saklanmaz.
+     */
+    synchronized void put(String table, String key, long version, ArrayList<?> rows) {
+        if (!isEnabled() || rows.size() > maxRows || versionOf(table) != version) return;
+
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            cachedRows -= previous.rows.size();
+        }
+        entries.put(key, new Entry(version, new ArrayList<>(rows)));
+        cachedRows += rows.size();
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (cachedRows > maxRows && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            cachedRows -= eldest.rows.size();
+            evictionCount++;
+        }
+    }
+
+    private void removeEntry(String key, Entry entry) {
+        entries.remove(key);
+        cachedRows -= entry.rows.size();
+    }
+
+    private TableStats statsOf(String table) {
+        String name = normalize(table);
+        TableStats tableStats = stats.get(name);
+        if (tableStats == null) {
+            tableStats = new TableStats();
+            stats.put(name, tableStats);
+        }
+        return tableStats;
+    }
+
+    private static String normalize(String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+
+    /** Saklanan tüm sonuçları çıkarır; sayaçlar korunur. */
+    public synchronized void clear() {
+        entries.clear();
+        cachedRows = 0;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Saklanan sonuçlardaki toplam satır sayısı. */
+    public synchronized int getCachedRowCount() {
+        return cachedRows;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getHitCount(String table) {
+        TableStats tableStats = stats.get(normalize(table));
+        return tableStats != null ? tableStats.hitCount : 0;
+    }
+
+    public synchronized long getMissCount(String table) {
+        TableStats tableStats = stats.get(normalize(table));
+        return tableStats != null ? tableStats.missCount : 0;
+    }
+
+    /** Tablo için isabet oranı (0..1); henüz sorgu yoksa 0. */
+    public synchronized double getHitRatio(String table) {
+        TableStats tableStats = stats.get(normalize(table));
+        if (tableStats == null) return 0;
+        long total = tableStats.hitCount + tableStats.missCount;
+        return total == 0 ? 0 : (double) tableStats.hitCount / total;
+    }
+}
@@ -0,0 +1,15 @@
+package lib.persistence;
+
+/**
+ * Akış (stream) sorgularında her satır eşlendiğinde çağrılır.
+ * Veritabanı thread'inde çalışır; uzun işler başka bir thread'e aktarılmalıdır.
+ *
+ * @param <T> Satırın eşlendiği model tipi.
+ */
+@FunctionalInterface
+public interface RowConsumer<T> {
+    /**
+     * @return Okumaya devam etmek için true, taramayı erken bitirmek için false.
+     */
+    boolean accept(T row) throws Exception;
+}
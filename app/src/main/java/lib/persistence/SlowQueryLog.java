@@ -0,0 +1,212 @@
+package lib.persistence;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * DbOptions.slowQueryThresholdMs süresini aşan sorguları kaydeder.
+ *
+ * Eşiği aşan her sorgu için SQL, parametre sayısı ve süre loglanır. Sorgular "şekillerine" göre
+ * gruplanır: sabit metin/sayı değerleri ve IN (?, ?, ...) listeleri tek bir yer tutucuya
+ * indirgenir, böylece sadece parametreleri farklı olan sorgular aynı kayıtta toplanır.
+ * Bir şekil ilk kez yavaş kaldığında aynı bağlantı üzerinde EXPLAIN QUERY PLAN çalıştırılır ve
+ * plan kayda eklenir; plan indeks kullanmadan tabloyu baştan sona tarıyorsa kayıt tam tarama
+ * olarak işaretlenir. Plan şekil başına bir kez alındığı için tekrar eden yavaş sorgular ek
+ * maliyet getirmez.
+ */
+public final class SlowQueryLog {
+
+    private static final String TAG = "SlowQueryLog";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Aynı şekle sahip yavaş sorgular için biriken bilgiler. */
+    public static final class Entry {
+        private final String shape;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private String lastSql;
+        private int lastBindArgCount;
+        private List<String> plan = Collections.emptyList();
+        private boolean fullScan;
+
+        Entry(String shape) {
+            this.shape = shape;
+        }
+
+        // İlk kayıtta true döner; plan sadece o zaman alınır.
+        synchronized boolean record(String sql, int bindArgCount, long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            maxNanos = Math.max(maxNanos, durationNanos);
+            lastSql = sql;
+            lastBindArgCount = bindArgCount;
+            return count == 1;
+        }
+
+        synchronized void setPlan(List<String> plan) {
+            this.plan = plan;
+            this.fullScan = false;
+            for (String detail : plan) {
+                if (SlowQueryLog.isFullScan(detail)) {
+                    this.fullScan = true;
+                    break;
+                }
+            }
+        }
+
+        /** Sabit değerleri yer tutucuya indirgenmiş SQL. */
+        public String getShape() {
+            return shape;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getTotalMs() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        public synchronized long getMaxMs() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+        }
+
+        /** Bu şekildeki son yavaş sorgunun SQL'i. */
+        public synchronized String getLastSql() {
+            return lastSql;
+        }
+
+        public synchronized int getLastBindArgCount() {
+            return lastBindArgCount;
+        }
+
+        /** EXPLAIN QUERY PLAN çıktısının detail sütunları. */
+        public synchronized List<String> getPlan() {
+            return plan;
+        }
+
+        /** Plan, indeks kullanmadan bir tabloyu tamamen tarıyorsa true. */
+        public synchronized boolean isFullScan() {
+            return fullScan;
+        }
+
+        @Override
+        public synchronized String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format(Locale.ROOT, "%s%d kez, toplam %d ms, en uzun %d ms: %s",
+                    fullScan ? "[TAM TARAMA] " : "", count, getTotalMs(), getMaxMs(), shape));
+            for (String detail : plan) {
+                builder.append("\n  plan: ").append(detail);
+            }
+            return builder.toString();
+        }
+    }
+
+    private final long thresholdNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    SlowQueryLog(long thresholdMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Sorgu bittikten sonra, sorgunun çalıştığı bağlantı ve thread'de çağrılır.
+     * Süre eşiğin altındaysa hiçbir şey yapmaz.
+     */
+    void onQueryFinished(SQLiteDatabase db, String sql, @Nullable String[] args, long durationNanos) {
+        if (durationNanos < thresholdNanos) return;
+
+        String shape = shapeOf(sql);
+        Entry entry = entries.get(shape);
+        if (entry == null) {
+            Entry created = new Entry(shape);
+            entry = entries.putIfAbsent(shape, created);
+            if (entry == null) entry = created;
+        }
+        int bindArgCount = args != null ? args.length : 0;
+        boolean firstOccurrence = entry.record(sql, bindArgCount, durationNanos);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (firstOccurrence) {
+            entry.setPlan(explain(db, sql, args));
+            Log.w(TAG, String.format(Locale.ROOT, "%d ms, %d parametre, SQL: %s", durationMs, bindArgCount, sql)
+                    + "\n" + entry);
+        } else {
+            Log.w(TAG, String.format(Locale.ROOT, "%d ms (%d. kez)%s: %s",
+                    durationMs, entry.getCount(), entry.isFullScan() ? " [TAM TARAMA]" : "", shape));
+        }
+    }
+
+    /** Yavaş sorgu kayıtları, toplam süreye göre büyükten küçüğe sıralı. */
+    public List<Entry> getEntries() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        Collections.sort(all, (a, b) -> Long.compare(b.getTotalMs(), a.getTotalMs()));
+        return all;
+    }
+
+    /** Sadece tam tablo taraması yapan yavaş sorgular; eksik indeksleri bulmak için. */
+    public List<Entry> getFullScans() {
+        List<Entry> scans = new ArrayList<>();
+        for (Entry entry : getEntries()) {
+            if (entry.isFullScan()) scans.add(entry);
+        }
+        return scans;
+    }
+
+    public void reset() {
+        entries.clear();
+    }
+
+    /** Tüm kayıtları okunabilir metin olarak döndürür (ör. logcat'e yazmak için). */
+    public String dump() {
+        StringBuilder builder = new StringBuilder("SlowQueryLog\n");
+        for (Entry entry : getEntries()) {
+            builder.append(entry).append('\n');
+        }
+        return builder.toString();
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("IN (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static List<String> explain(SQLiteDatabase db, String sql, @Nullable String[] args) {
+        List<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args)) {
+            int detailIndex = cursor.getColumnIndex("detail");
+            while (cursor.moveToNext()) {
+                plan.add(detailIndex >= 0 ? cursor.getString(detailIndex) : cursor.getString(cursor.getColumnCount() - 1));
+            }
+        } catch (RuntimeException e) {
+            plan.add("EXPLAIN QUERY PLAN alınamadı: " + e.getMessage());
+        }
+        return plan;
+    }
+
+    // "SCAN TABLE todo" (eski SQLite) veya "SCAN todo" indekssiz tam taramadır;
+    // "... USING INDEX", sabit satır ve alt sorgu taramaları sayılmaz.
+    static boolean isFullScan(String detail) {
+        if (detail == null || !detail.startsWith("SCAN ")) return false;
+        return !detail.contains(" USING ")
+                && !detail.startsWith("SCAN CONSTANT ROW")
+                && !detail.startsWith("SCAN SUBQUERY");
+    }
+}
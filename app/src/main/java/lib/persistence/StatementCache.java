@@ -0,0 +1,94 @@
+package lib.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Açık bağlantıya ait derlenmiş SQLiteStatement'ları SQL metnine göre saklayan LRU önbellek.
+ * Aynı şekildeki INSERT/UPDATE/DELETE cümleleri her çağrıda yeniden derlenmez;
+ * kapasite aşıldığında en uzun süre kullanılmayan ifade kapatılarak çıkarılır.
+ *
+ * Bağlantı kapandığında veya değiştiğinde ADbContext önbelleği temizler.
+ */
+public final class StatementCache {
+
+    private final int capacity;
+    private final LinkedHashMap<String, SQLiteStatement> statements;
+    private SQLiteDatabase owner;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    StatementCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        // accessOrder = true: get() ile erişilen kayıt listenin sonuna taşınır (LRU).
+        this.statements = new LinkedHashMap<String, SQLiteStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SQLiteStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    eldest.getValue().close();
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * SQL metnine karşılık gelen derlenmiş ifadeyi döndürür, yoksa derleyip saklar.
+     * Dönen ifadenin önceki parametreleri temizlenmiştir; çağıran kapatmamalıdır.
+     */
+    synchronized SQLiteStatement acquire(SQLiteDatabase db, String sql) {
+        if (owner != db) {
+            // Farklı bir bağlantıya ait ifadeler yeniden kullanılamaz.
+            clear();
+            owner = db;
+        }
+        SQLiteStatement statement = statements.get(sql);
+        if (statement != null) {
+            hitCount++;
+            statement.clearBindings();
+            return statement;
+        }
+        missCount++;
+        statement = db.compileStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    /** Tüm ifadeleri kapatır ve önbelleği boşaltır. */
+    synchronized void clear() {
+        Iterator<SQLiteStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().close();
+            iterator.remove();
+        }
+        owner = null;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+}
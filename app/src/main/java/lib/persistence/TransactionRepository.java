@@ -0,0 +1,114 @@
+package lib.persistence;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+import lib.persistence.command.manipulation.DeleteSql;
+import lib.persistence.command.manipulation.UpdateSql;
+import lib.persistence.command.query.CompiledQuery;
+import lib.persistence.command.query.Select;
+
+/**
+ * Bir repository'nin DbTransaction'a bağlı görünümü. İşlemler geri çağırma yerine doğrudan
+ * sonuç döndürür ve başarısız olduğunda hata fırlatır; hata yakalanmazsa tüm transaction geri alınır.
+ *
+ * Okumalar sorgu önbelleğini kullanmaz; transaction içinde yapılan, henüz commit edilmemiş
+ * değişiklikleri görür.
+ *
+ * @param <T> Repository'nin model tipi.
+ */
+public final class TransactionRepository<T> {
+
+    private final DbTransaction transaction;
+    private final GenericRepository<T> repository;
+
+    TransactionRepository(DbTransaction transaction, GenericRepository<T> repository) {
+        this.transaction = transaction;
+        this.repository = repository;
+    }
+
+    public T insert(T item) throws Exception {
+        return unwrap(repository.insert(transaction.getDatabase(), item));
+    }
+
+    public ArrayList<T> insertAll(Collection<T> items) throws Exception {
+        return unwrap(repository.insertAll(transaction.getDatabase(), items.iterator()));
+    }
+
+    public T update(T item) throws Exception {
+        return unwrap(repository.update(transaction.getDatabase(), item));
+    }
+
+    public T upsert(T item) throws Exception {
+        return unwrap(repository.upsert(transaction.getDatabase(), item));
+    }
+
+    public ArrayList<T> upsertAll(Collection<T> items) throws Exception {
+        return unwrap(repository.upsertAll(transaction.getDatabase(), items));
+    }
+
+    public ArrayList<T> replaceSet(Collection<T> items) throws Exception {
+        return unwrap(repository.replaceSet(transaction.getDatabase(), items));
+    }
+
+    public T delete(T item) throws Exception {
+        return unwrap(repository.delete(transaction.getDatabase(), item));
+    }
+
+    /** Kaydı okumadan siler; sonuç nesne önbellekte varsa o, yoksa null olur. */
+    @Nullable
+    public T deleteById(Object id) throws Exception {
+        return unwrap(repository.deleteById(transaction.getDatabase(), id, false));
+    }
+
+    public int deleteByIds(Collection<?> ids) throws Exception {
+        return unwrap(repository.deleteByIds(transaction.getDatabase(), new ArrayList<>(ids)));
+    }
+
+    public int deleteWhere(DeleteSql command) throws Exception {
+        return unwrap(repository.deleteWhere(transaction.getDatabase(), command));
+    }
+
+    public int updateWhere(UpdateSql command) throws Exception {
+        return unwrap(repository.updateWhere(transaction.getDatabase(), command));
+    }
+
+    public int updateByIds(Collection<?> ids, UpdateSql command) throws Exception {
+        return unwrap(repository.updateByIds(transaction.getDatabase(), new ArrayList<>(ids), command));
+    }
+
+    public int deleteAll() throws Exception {
+        return unwrap(repository.deleteAll(transaction.getDatabase()));
+    }
+
+    /** Kaydı getirir; bulunamazsa null döner, transaction'ı geri almaz. */
+    @Nullable
+    public T getById(Object id) {
+        DbResult<T> result = repository.getById(transaction.getDatabase(), id);
+        return result.isSuccess() ? result.getData() : null;
+    }
+
+    /** Bulunan kayıtları istenen ID sırasıyla, ID -> kayıt eşlemesi olarak döndürür. */
+    public Map<Object, T> getByIds(Collection<?> ids) throws Exception {
+        return repository.getByIds(transaction.getDatabase(), new ArrayList<Object>(ids));
+    }
+
+    public ArrayList<T> select(Select<T> command) throws Exception {
+        return repository.selectRows(transaction.getDatabase(), command);
+    }
+
+    public ArrayList<T> select(CompiledQuery<T> query) throws Exception {
+        return repository.selectRows(transaction.getDatabase(), query);
+    }
+
+    private static <R> R unwrap(DbResult<R> result) throws Exception {
+        if (result.isSuccess()) {
+            return result.getData();
+        }
+        DbResult.Error<R> error = (DbResult.Error<R>) result;
+        throw error.getException() != null ? error.getException() : new Exception(error.getErrorMessage());
+    }
+}
@@ -0,0 +1,12 @@
+package lib.persistence;
+
+/**
+ * ADbContext.runInTransaction ile tek transaction içinde çalıştırılan iş birimi.
+ * Fırlatılan herhangi bir hata transaction'ı geri alır.
+ *
+ * @param <R> İşin sonucu; geri çağırmaya commit sonrası iletilir.
+ */
+@FunctionalInterface
+public interface TransactionWork<R> {
+    R run(DbTransaction transaction) throws Exception;
+}
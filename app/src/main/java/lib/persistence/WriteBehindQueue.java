@@ -0,0 +1,164 @@
+package lib.persistence;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sık ve küçük yazmaları (ör. konum geçmişi, Bluetooth cihaz kayıtları) bellekte biriktirip
+ * tek bir transaction ile yazan kuyruk (group commit).
+ *
+ * Kuyruk, biriken işlem sayısı DbOptions.writeBehindMaxBatch'e ulaştığında veya ilk işlemden
+ * sonra DbOptions.writeBehindMaxDelayMs geçtiğinde boşaltılır. Her öğenin geri çağırması,
+ * toplu yazma commit edildikten sonra kendi sonucuyla çağrılır.
+ *
+ * Dayanıklılık: yazılmamış işlemler süreç sonlanırsa kaybolur. Bu pencereyi kısaltmak için
+ * DbOptions.writeBehindFlushOnBackground açıkken uygulama arka plana geçtiğinde kuyruk boşaltılır;
+ * ayrıca {@link #flushOnStop(LifecycleOwner)} ile bir ekranın onStop'una bağlanabilir.
+ *
+ * @param <T> Yazılan model tipi.
+ */
+public final class WriteBehindQueue<T> {
+
+    static final class PendingWrite<T> {
+        final T item;
+        final boolean isUpdate;
+        @Nullable
+        private final DbCallback<T> callback;
+
+        PendingWrite(T item, boolean isUpdate, @Nullable DbCallback<T> callback) {
+            this.item = item;
+            this.isUpdate = isUpdate;
+            this.callback = callback;
+        }
+
+        void deliver(DbResult<T> result) {
+            if (callback != null) {
+                callback.onResult(result);
+            }
+        }
+    }
+
+    private final GenericRepository<T> repository;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatch;
+    private final long maxDelayMs;
+
+    // this ile korunur
+    private ArrayList<PendingWrite<T>> buffer = new ArrayList<>();
+    private ScheduledFuture<?> flushTask;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+
+    WriteBehindQueue(GenericRepository<T> repository, ScheduledExecutorService scheduler, DbOptions options) {
+        this.repository = repository;
+        this.scheduler = scheduler;
+        this.maxBatch = options.writeBehindMaxBatch;
+        this.maxDelayMs = options.writeBehindMaxDelayMs;
+        if (options.writeBehindFlushOnBackground) {
+            ADbContext.flushOnBackground(this);
+        }
+    }
+
+    /** Eklenecek nesneyi kuyruğa alır. Geri çağırma, toplu yazma commit edildikten sonra çalışır. */
+    public void insert(T item, @Nullable DbCallback<T> callback) {
+        enqueue(new PendingWrite<>(item, false, callback));
+    }
+
+    /** Güncellenecek nesneyi kuyruğa alır. Geri çağırma, toplu yazma commit edildikten sonra çalışır. */
+    public void update(T item, @Nullable DbCallback<T> callback) {
+        enqueue(new PendingWrite<>(item, true, callback));
+    }
+
+    private void enqueue(PendingWrite<T> write) {
+        boolean flushNow;
+        synchronized (this) {
+            buffer.add(write);
+            flushNow = buffer.size() >= maxBatch;
+            if (!flushNow && flushTask == null) {
+                flushTask = scheduler.schedule(() -> flush(), maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /** Biriken işlemleri hemen yazma hattına gönderir. */
+    public void flush() {
+        flush(null);
+    }
+
+    /**
+     * Biriken işlemleri hemen yazma hattına gönderir.
+     *
+     * @param callback Toplu yazma bittiğinde yazılan öğe sayısı ile çağrılır; kuyruk boşsa 0.
+     */
+    public void flush(@Nullable DbCallback<Integer> callback) {
+        synchronized (this) {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            if (!buffer.isEmpty()) {
+                ArrayList<PendingWrite<T>> batch = buffer;
+                buffer = new ArrayList<>();
+                batchCount.incrementAndGet();
+                writeCount.addAndGet(batch.size());
+                // Kilit içinde gönderilir; toplu yazmalar yazma hattına kuyruğa alındıkları sırayla girer.
+                repository.writeBatch(batch, result -> {
+                    if (callback != null) {
+                        callback.onResult(result);
+                    }
+                });
+                return;
+            }
+        }
+        if (callback != null) {
+            callback.onResult(new DbResult.Success<>(0));
+        }
+    }
+
+    /**
+     * owner onStop'a geçtiğinde kuyruğu boşaltır; gözlemci owner yok edildiğinde kaldırılır.
+     * Ana thread'den çağrılmalıdır.
+     */
+    public void flushOnStop(@NonNull LifecycleOwner owner) {
+        final Lifecycle lifecycle = owner.getLifecycle();
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event e) {
+                if (e == Lifecycle.Event.ON_STOP) {
+                    flush();
+                } else if (e == Lifecycle.Event.ON_DESTROY) {
+                    flush();
+                    lifecycle.removeObserver(this);
+                }
+            }
+        });
+    }
+
+    /** Henüz yazma hattına gönderilmemiş işlem sayısı. */
+    public synchronized int getPendingCount() {
+        return buffer.size();
+    }
+
+    /** Gönderilen toplu yazma (transaction) sayısı. */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /** Toplu yazmalarla gönderilen toplam işlem sayısı. */
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+}
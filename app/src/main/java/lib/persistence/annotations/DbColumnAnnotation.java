@@ -12,5 +12,7 @@ public @interface DbColumnAnnotation {
     boolean isPrimaryKey() default false;
     boolean isIdentity() default false;
     boolean isNullable() default true;
+    /** Sütuna UNIQUE kısıtı ekler; birincil anahtar identity ise upsert bu sütunu çakışma hedefi olarak kullanır. */
+    boolean isUnique() default false;
     int ordinal() default 1010;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package lib.persistence.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tabloda UNIQUE INDEX tanımlar. Alana eklendiğinde alanın sütunu indeksin ilk sütunudur;
+ * columns ile bileşik indeksin diğer sütunları eklenebilir. Sınıfa eklendiğinde columns zorunludur.
+ * ADbContext, getEntityTypes() ile verilen tiplerin eksik indekslerini açılışta oluşturur.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.TYPE})
+@Repeatable(DbUniqueIndexes.class)
+public @interface DbUniqueIndex {
+    /** İndeks adı; boşsa tablo ve sütun adlarından üretilir. */
+    String name() default "";
+    /** İndekslenecek (alan seviyesinde: alanın sütunundan sonra eklenecek) sütunlar, sırasıyla. */
+    String[] columns() default {};
+}
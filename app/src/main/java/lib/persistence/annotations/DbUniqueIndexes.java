@@ -0,0 +1,13 @@
+package lib.persistence.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Aynı yerde birden fazla @DbUniqueIndex kullanılabilmesi için taşıyıcı annotation. */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.TYPE})
+public @interface DbUniqueIndexes {
+    DbUniqueIndex[] value();
+}
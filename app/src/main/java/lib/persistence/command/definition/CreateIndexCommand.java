@@ -1,7 +1,12 @@
 package lib.persistence.command.definition;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lib.persistence.annotations.DbTableAnnotation;
+import lib.persistence.profile.DbIndexDefinition;
+import lib.persistence.profile.Mapper;
 
 public class CreateIndexCommand {
 
@@ -33,6 +38,18 @@ public class CreateIndexCommand {
         return new CreateIndexCommand(queryBuilder.toString());
     }
 
+    /**
+     * Tipin @DbIndex / @DbUniqueIndex ile tanımlanan tüm indeksleri için komut üretir.
+     * Komutlar IF NOT EXISTS içerdiği için mevcut veritabanında tekrar çalıştırılabilir.
+     */
+    public static List<CreateIndexCommand> buildAll(Class<?> type) {
+        List<CreateIndexCommand> commands = new ArrayList<>();
+        for (DbIndexDefinition index : Mapper.getIndexes(type)) {
+            commands.add(build(type, index.getName(), index.isUnique(), index.getColumns()));
+        }
+        return commands;
+    }
+
     public String getQuery() {
         return query;
     }
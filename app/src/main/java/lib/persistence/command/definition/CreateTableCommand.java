@@ -12,14 +12,23 @@ public class CreateTableCommand {
     private Class<?> type;
     private String tableName;
     private String query;
+    private List<String> indexQueries;
 
     private CreateTableCommand() {
     }
 
     public static CreateTableCommand build(Class<?> type) {
+        return build(type, Mapper.getTableName(type));
+    }
+
+    /**
+     * Tipin tablo tanımını verilen tablo adıyla oluşturur. Şema geçişinde tablo yeniden
+     * kurulurken geçici tablo için kullanılır.
+     */
+    public static CreateTableCommand build(Class<?> type, String tableName) {
         CreateTableCommand command = new CreateTableCommand();
         command.type = type;
-        command.tableName = Mapper.getTableName(type);
+        command.tableName = tableName;
 
         List<DbColumn> columns = Mapper.classToDbColumns(type);
 
@@ -38,6 +47,9 @@ public class CreateTableCommand {
                     if (!column.isNullable()) {
                         columnDef.append(" NOT NULL");
                     }
+                    if (column.isUnique() && !column.isPrimaryKey()) {
+                        columnDef.append(" UNIQUE");
+                    }
                     return columnDef.toString();
                 })
                 .collect(Collectors.toCollection(ArrayList::new));
@@ -53,6 +65,12 @@ public class CreateTableCommand {
                 .append(");");
 
         command.query = queryBuilder.toString();
+
+        // Annotation ile tanımlanan indeksler tablodan sonra oluşturulur
+        command.indexQueries = new ArrayList<>();
+        for (CreateIndexCommand indexCommand : CreateIndexCommand.buildAll(type)) {
+            command.indexQueries.add(indexCommand.getQuery());
+        }
         return command;
     }
 
@@ -67,6 +85,11 @@ public class CreateTableCommand {
     public String getQuery() {
         return query;
     }
+
+    /** Tablonun @DbIndex / @DbUniqueIndex indeksleri için CREATE INDEX IF NOT EXISTS ifadeleri. */
+    public List<String> getIndexQueries() {
+        return indexQueries;
+    }
 }
 
 /*
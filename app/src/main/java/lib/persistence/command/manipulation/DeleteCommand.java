@@ -1,10 +1,16 @@
 package lib.persistence.command.manipulation;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import lib.persistence.annotations.DbTableAnnotation;
 import lib.persistence.profile.Mapper;
 
 public class DeleteCommand {
 
+    // Tip başına üretilen DELETE metni; statement önbelleğinde anahtar olarak kullanılır.
+    private static final Map<Class<?>, String> sqlCache = new ConcurrentHashMap<>();
+
     private String tableName;
     private String whereClause;
     private String[] whereArgs;
@@ -48,6 +54,15 @@ public class DeleteCommand {
         return new DeleteCommand(tableName, null, null);
     }
 
+    /**
+     * Verilen tip için birincil anahtara göre silme yapan parametreli DELETE cümlesi üretir.
+     * Örnek: DELETE FROM Todo WHERE id=?
+     */
+    public static String buildSql(Class<?> type) {
+        return sqlCache.computeIfAbsent(type,
+                t -> "DELETE FROM " + Mapper.getTableName(t) + " WHERE " + Mapper.getPrimaryKeyColumnName(t) + "=?");
+    }
+
     public String getTableName() {
         return tableName;
     }
@@ -1,22 +1,25 @@
 package lib.persistence.command.manipulation;
 
+import android.database.sqlite.SQLiteProgram;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import lib.persistence.annotations.DbTableAnnotation;
+import lib.persistence.profile.Mapper;
 
 public class DeleteSql {
     private Class<?> type;
     private String tableName;
     private List<String> whereClauses;
-    private List<String> whereArgs;
+    private List<Object> whereValues;
 
     private DeleteSql(Class<?> type) {
         this.type = type;
         DbTableAnnotation annotation = type.getAnnotation(DbTableAnnotation.class);
         this.tableName = (annotation != null && !annotation.name().isEmpty()) ? annotation.name() : type.getSimpleName();
         this.whereClauses = new ArrayList<>();
-        this.whereArgs = new ArrayList<>();
+        this.whereValues = new ArrayList<>();
     }
 
     public static DeleteSql build(Class<?> type) {
@@ -28,16 +31,23 @@ public class DeleteSql {
     }
 
     public DeleteSql and() {
+        // Okunabilirlik için bırakıldı. Koşullar otomatik olarak AND ile birleşiyor.
         return this;
     }
 
+    /**
+     * Desteklenmez: koşullar her zaman AND ile birleşir. Sessizce AND olarak çalışmak, silinen
+     * veya güncellenen satırları değiştireceği için hata fırlatılır.
+     *
+     * @throws UnsupportedOperationException Her zaman.
+     */
     public DeleteSql or() {
-        return this;
+        throw new UnsupportedOperationException("DeleteSql: OR desteklenmiyor; koşullar AND ile birleşir.");
     }
 
     public DeleteSql Equals(String column, Object value) {
         whereClauses.add(column + " = ?");
-        whereArgs.add(String.valueOf(value));
+        whereValues.add(value);
         return this;
     }
     // Diğer WHERE koşulları da buraya eklenebilir.
@@ -50,7 +60,32 @@ public class DeleteSql {
         return String.join(" AND ", whereClauses);
     }
 
+    /** Koşul parametrelerinin metin hali (Mapper.toSqlArgument). */
     public String[] getWhereArgs() {
-        return whereArgs.toArray(new String[0]);
+        String[] args = new String[whereValues.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = Mapper.toSqlArgument(whereValues.get(i));
+        }
+        return args;
+    }
+
+    /**
+     * Derlenmiş ifade olarak çalıştırılabilecek DELETE cümlesi.
+     *
+     * @throws IllegalArgumentException Koşul eklenmediyse; koşulsuz DELETE tüm tabloyu siler.
+     * Tabloyu boşaltmak için GenericRepository.deleteAll kullanılmalıdır.
+     */
+    public String getSql() {
+        if (whereClauses.isEmpty()) {
+            throw new IllegalArgumentException("DeleteSql: Koşul bulunamadı; tüm kayıtları silmek için deleteAll kullanın.");
+        }
+        return "DELETE FROM " + tableName + " WHERE " + getWhereClause();
+    }
+
+    /** Koşul parametrelerini tipleriyle (Mapper.bindArgument) 1'den başlayarak bağlar. */
+    public void bindTo(SQLiteProgram program) {
+        for (int i = 0; i < whereValues.size(); i++) {
+            Mapper.bindArgument(program, i + 1, whereValues.get(i));
+        }
     }
 }
\ No newline at end of file
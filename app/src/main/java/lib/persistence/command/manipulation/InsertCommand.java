@@ -2,11 +2,18 @@ package lib.persistence.command.manipulation;
 
 import android.content.ContentValues;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lib.persistence.profile.DbColumn;
 import lib.persistence.profile.Mapper;
 
 
 public class InsertCommand {
 
+    // Tip başına üretilen INSERT metni; statement önbelleğinde anahtar olarak kullanılır.
+    private static final Map<Class<?>, String> sqlCache = new ConcurrentHashMap<>();
+
     private final String tableName;
     private final ContentValues contentValues;
 
@@ -36,6 +43,40 @@ public class InsertCommand {
         return new InsertCommand(tableName, contentValues);
     }
 
+    /**
+     * Verilen tip için parametreli bir INSERT cümlesi üretir.
+     * Örnek: INSERT INTO Todo (id,userId,title,completed) VALUES (?,?,?,?)
+     * Identity sütunları, objectToContentValues ile tutarlı olarak dahil edilmez.
+     *
+     * @param type Model sınıfı.
+     * @return SQLiteStatement olarak derlenebilecek SQL metni.
+     */
+    public static String buildSql(Class<?> type) {
+        return sqlCache.computeIfAbsent(type, InsertCommand::createSql);
+    }
+
+    private static String createSql(Class<?> type) {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            if (column.isIdentity()) {
+                continue;
+            }
+            if (columns.length() > 0) {
+                columns.append(',');
+                placeholders.append(',');
+            }
+            columns.append(column.getColumnName());
+            placeholders.append('?');
+        }
+
+        if (columns.length() == 0) {
+            throw new IllegalArgumentException("InsertCommand: Eklenecek sütun bulunamadı. " + type.getSimpleName());
+        }
+
+        return "INSERT INTO " + Mapper.getTableName(type) + " (" + columns + ") VALUES (" + placeholders + ")";
+    }
+
     public String getTableName() {
         return tableName;
     }
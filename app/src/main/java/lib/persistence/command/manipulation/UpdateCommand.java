@@ -3,9 +3,16 @@ package lib.persistence.command.manipulation;
 
 import android.content.ContentValues;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lib.persistence.profile.DbColumn;
 import lib.persistence.profile.Mapper;
 
 public class UpdateCommand {
+    // Tip başına üretilen UPDATE metni; statement önbelleğinde anahtar olarak kullanılır.
+    private static final Map<Class<?>, String> sqlCache = new ConcurrentHashMap<>();
+
     private String tableName;
     private ContentValues contentValues;
     private String whereClause;
@@ -37,6 +44,35 @@ public class UpdateCommand {
         );
     }
 
+    /**
+     * Verilen tip için birincil anahtara göre güncelleme yapan parametreli bir UPDATE cümlesi üretir.
+     * Örnek: UPDATE Todo SET userId=?,title=?,completed=? WHERE id=?
+     * Parametre sırası Mapper.bindUpdateArgs ile aynıdır: önce SET sütunları, en son birincil anahtar.
+     */
+    public static String buildSql(Class<?> type) {
+        return sqlCache.computeIfAbsent(type, UpdateCommand::createSql);
+    }
+
+    private static String createSql(Class<?> type) {
+        StringBuilder setClause = new StringBuilder();
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            if (column.isIdentity() || column.isPrimaryKey()) {
+                continue;
+            }
+            if (setClause.length() > 0) {
+                setClause.append(',');
+            }
+            setClause.append(column.getColumnName()).append("=?");
+        }
+
+        if (setClause.length() == 0) {
+            throw new IllegalArgumentException("UpdateCommand: Güncellenecek sütun bulunamadı. " + type.getSimpleName());
+        }
+
+        return "UPDATE " + Mapper.getTableName(type) + " SET " + setClause
+                + " WHERE " + Mapper.getPrimaryKeyColumnName(type) + "=?";
+    }
+
     public String getTableName() {
         return tableName;
     }
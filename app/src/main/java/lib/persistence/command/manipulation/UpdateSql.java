@@ -1,26 +1,33 @@
 package lib.persistence.command.manipulation;
 
 import android.content.ContentValues;
+import android.database.sqlite.SQLiteProgram;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import lib.persistence.annotations.DbTableAnnotation;
+import lib.persistence.profile.Mapper;
 
 public class UpdateSql {
     private Class<?> type;
     private String tableName;
     private ContentValues contentValues;
+    // set ile verilen değerler, SQL'deki sırayla; tipleriyle bağlanır.
+    private LinkedHashMap<String, Object> values;
     private List<String> whereClauses;
-    private List<String> whereArgs;
+    private List<Object> whereValues;
 
     private UpdateSql(Class<?> type) {
         this.type = type;
         DbTableAnnotation annotation = type.getAnnotation(DbTableAnnotation.class);
         this.tableName = (annotation != null && !annotation.name().isEmpty()) ? annotation.name() : type.getSimpleName();
         this.contentValues = new ContentValues();
+        this.values = new LinkedHashMap<>();
         this.whereClauses = new ArrayList<>();
-        this.whereArgs = new ArrayList<>();
+        this.whereValues = new ArrayList<>();
     }
 
     public static UpdateSql build(Class<?> type) {
@@ -28,10 +35,12 @@ public class UpdateSql {
     }
 
     public UpdateSql set(String column, Object value) {
-        // Mevcut Mapper.putInContentValues'ı kullanabiliriz
-        // Mapper.putInContentValues(contentValues, column, value);
-        // Basit bir örnek için doğrudan ekleyelim:
-        contentValues.put(column, String.valueOf(value)); // Veya uygun tip dönüşümü
+        // Değer, insert/update ile aynı kodlamayla yazılır (Boolean -> 1/0, tarih -> metin).
+        Mapper.putInContentValues(contentValues, column, value);
+        // putInContentValues'in yazmadığı tipler SQL'e de eklenmez.
+        if (contentValues.containsKey(column)) {
+            values.put(column, value);
+        }
         return this;
     }
 
@@ -40,16 +49,23 @@ public class UpdateSql {
     }
 
     public UpdateSql and() {
+        // Okunabilirlik için bırakıldı. Koşullar otomatik olarak AND ile birleşiyor.
         return this;
     }
 
+    /**
+     * Desteklenmez: koşullar her zaman AND ile birleşir. Sessizce AND olarak çalışmak, silinen
+     * veya güncellenen satırları değiştireceği için hata fırlatılır.
+     *
+     * @throws UnsupportedOperationException Her zaman.
+     */
     public UpdateSql or() {
-        return this;
+        throw new UnsupportedOperationException("UpdateSql: OR desteklenmiyor; koşullar AND ile birleşir.");
     }
 
     public UpdateSql Equals(String column, Object value) {
         whereClauses.add(column + " = ?");
-        whereArgs.add(String.valueOf(value));
+        whereValues.add(value);
         return this;
     }
 
@@ -65,7 +81,59 @@ public class UpdateSql {
         return String.join(" AND ", whereClauses);
     }
 
+    /** Koşul parametrelerinin metin hali (Mapper.toSqlArgument). */
     public String[] getWhereArgs() {
-        return whereArgs.toArray(new String[0]);
+        String[] args = new String[whereValues.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = Mapper.toSqlArgument(whereValues.get(i));
+        }
+        return args;
+    }
+
+    /** "a = ?, b = ?" şeklinde SET ifadesi. */
+    public String getSetClause() {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("UpdateSql: Güncellenecek değer bulunamadı.");
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String column : values.keySet()) {
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(column).append(" = ?");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Derlenmiş ifade olarak çalıştırılabilecek UPDATE cümlesi.
+     *
+     * @throws IllegalArgumentException Koşul eklenmediyse; koşulsuz UPDATE tablodaki tüm kayıtları değiştirir.
+     */
+    public String getSql() {
+        if (whereClauses.isEmpty()) {
+            throw new IllegalArgumentException("UpdateSql: Koşul bulunamadı; koşulsuz güncelleme yapılamaz.");
+        }
+        return "UPDATE " + tableName + " SET " + getSetClause() + " WHERE " + getWhereClause();
+    }
+
+    /** SET değerleri ve koşul parametrelerinin toplam sayısı. */
+    public int getArgCount() {
+        return values.size() + whereValues.size();
+    }
+
+    /**
+     * Önce SET değerlerini (Mapper.bindValue, putInContentValues ile aynı kodlama), sonra koşul
+     * parametrelerini (Mapper.bindArgument) tipleriyle 1'den başlayarak bağlar.
+     *
+     * @return Bağlanan parametre sayısı; ek parametreler bu sayının bir fazlasından başlar.
+     */
+    public int bindTo(SQLiteProgram program) {
+        int index = 1;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Mapper.bindValue(program, index++, entry.getValue());
+        }
+        for (Object value : whereValues) {
+            Mapper.bindArgument(program, index++, value);
+        }
+        return index - 1;
     }
 }
\ No newline at end of file
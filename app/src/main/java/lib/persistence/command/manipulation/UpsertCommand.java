@@ -0,0 +1,106 @@
+package lib.persistence.command.manipulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lib.persistence.profile.DbColumn;
+import lib.persistence.profile.Mapper;
+
+/**
+ * Upsert (ekle, varsa güncelle) için SQL cümleleri üretir.
+ *
+ * SQLite 3.24 ve sonrası için tek cümle kullanılır:
+ * INSERT INTO Todo (id,userId,title,completed) VALUES (?,?,?,?)
+ * ON CONFLICT(id) DO UPDATE SET userId=excluded.userId,title=excluded.title,completed=excluded.completed
+ *
+ * Daha eski sürümlerde (API 30 öncesi) önce çakışma sütunlarına göre UPDATE, satır yoksa INSERT yapılır.
+ * INSERT parametre sırası InsertCommand ve Mapper.bindInsertArgs ile aynıdır.
+ */
+public class UpsertCommand {
+
+    private static final Map<String, String> sqlCache = new ConcurrentHashMap<>();
+    private static final Map<String, String> updateSqlCache = new ConcurrentHashMap<>();
+    private static final Map<String, String> keyLookupSqlCache = new ConcurrentHashMap<>();
+
+    private UpsertCommand() {
+    }
+
+    /** ON CONFLICT(conflictColumns) DO UPDATE cümlesini döndürür. */
+    public static String buildSql(Class<?> type, String[] conflictColumns) {
+        return sqlCache.computeIfAbsent(cacheKey(type, conflictColumns), k -> createSql(type, conflictColumns));
+    }
+
+    /**
+     * Eski SQLite sürümleri için çakışma sütunlarına göre güncelleme cümlesi.
+     * Parametre sırası: önce getUpdateColumns sütunları, sonra çakışma sütunları.
+     * Güncellenecek sütun yoksa null döner.
+     */
+    public static String buildUpdateSql(Class<?> type, String[] conflictColumns) {
+        String[] updateColumns = getUpdateColumns(type, conflictColumns);
+        if (updateColumns.length == 0) {
+            return null;
+        }
+        return updateSqlCache.computeIfAbsent(cacheKey(type, conflictColumns), k -> {
+            StringBuilder setClause = new StringBuilder();
+            for (String column : updateColumns) {
+                if (setClause.length() > 0) setClause.append(',');
+                setClause.append(column).append("=?");
+            }
+            return "UPDATE " + Mapper.getTableName(type) + " SET " + setClause + " WHERE " + whereClause(conflictColumns);
+        });
+    }
+
+    /**
+     * Identity birincil anahtarın değerini çakışma sütunlarından bulan sorgu.
+     * Örnek: SELECT id FROM BtDevices WHERE address=?
+     */
+    public static String buildKeyLookupSql(Class<?> type, String[] conflictColumns) {
+        return keyLookupSqlCache.computeIfAbsent(cacheKey(type, conflictColumns), k ->
+                "SELECT " + Mapper.getPrimaryKeyColumnName(type) + " FROM " + Mapper.getTableName(type)
+                        + " WHERE " + whereClause(conflictColumns));
+    }
+
+    /** Çakışma durumunda güncellenen sütunlar: identity, birincil anahtar ve çakışma sütunları hariç. */
+    public static String[] getUpdateColumns(Class<?> type, String[] conflictColumns) {
+        List<String> conflicts = Arrays.asList(conflictColumns);
+        List<String> columns = new ArrayList<>();
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            if (column.isIdentity() || column.isPrimaryKey() || conflicts.contains(column.getColumnName())) {
+                continue;
+            }
+            columns.add(column.getColumnName());
+        }
+        return columns.toArray(new String[0]);
+    }
+
+    private static String createSql(Class<?> type, String[] conflictColumns) {
+        String[] updateColumns = getUpdateColumns(type, conflictColumns);
+        StringBuilder sql = new StringBuilder(InsertCommand.buildSql(type))
+                .append(" ON CONFLICT(").append(String.join(",", conflictColumns)).append(")");
+        if (updateColumns.length == 0) {
+            return sql.append(" DO NOTHING").toString();
+        }
+        sql.append(" DO UPDATE SET ");
+        for (int i = 0; i < updateColumns.length; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(updateColumns[i]).append("=excluded.").append(updateColumns[i]);
+        }
+        return sql.toString();
+    }
+
+    private static String whereClause(String[] conflictColumns) {
+        StringBuilder where = new StringBuilder();
+        for (String column : conflictColumns) {
+            if (where.length() > 0) where.append(" AND ");
+            where.append(column).append("=?");
+        }
+        return where.toString();
+    }
+
+    private static String cacheKey(Class<?> type, String[] conflictColumns) {
+        return type.getName() + ':' + String.join(",", conflictColumns);
+    }
+}
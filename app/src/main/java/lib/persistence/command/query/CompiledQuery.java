@@ -0,0 +1,104 @@
+package lib.persistence.command.query;
+
+import android.database.sqlite.SQLiteProgram;
+
+import lib.persistence.profile.Mapper;
+
+/**
+ * Select.compile() ile üretilen, değişmez ve thread-safe sorgu.
+ *
+ * SQL metni ve parametre yerleri derleme sırasında dondurulur; aynı sorgu farklı değerlerle
+ * {@link #withArgs(Object...)} kullanılarak tekrar çalıştırıldığında SQL yeniden üretilmez, sadece
+ * parametre dizisi oluşturulur. Aynı SQL metni kullanıldığı için derlenmiş ifade ve sorgu
+ * önbellekleri de isabet eder. Parametreler tipleriyle saklanır ve {@link #bindTo(SQLiteProgram)}
+ * ile bindLong/bindDouble/bindBlob/bindString olarak bağlanır; sayılar metne çevrilmez.
+ * Değişmez olduğundan static sabit olarak saklanabilir:
+ * <pre>
+ * static final CompiledQuery&lt;Todo&gt; BY_USER = Select.from(Todo.class)
+ *         .where().Equals("userId", 0).orderBy("id").compile();
+ * ...
+ * todoRepository.selectWith(BY_USER.withArgs(userId), callback);
+ * </pre>
+ *
+ * @param <T> Sorgunun döndüreceği nesne tipi.
+ */
+public final class CompiledQuery<T> {
+
+    private static final String[] NO_ARGS = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final Class<T> type;
+    private final String sql;
+    private final Object[] args;
+    private final boolean selectsAllColumns;
+
+    CompiledQuery(Class<T> type, String sql, Object[] args, boolean selectsAllColumns) {
+        this.type = type;
+        this.sql = sql;
+        this.args = args.length == 0 ? NO_VALUES : args;
+        this.selectsAllColumns = selectsAllColumns;
+    }
+
+    /**
+     * Aynı SQL'i verilen parametre değerleriyle kullanan yeni bir sorgu döndürür. Değerler
+     * WHERE koşullarının eklendiği sırayla verilmelidir.
+     *
+     * @throws IllegalArgumentException Değer sayısı parametre sayısından farklıysa.
+     */
+    public CompiledQuery<T> withArgs(Object... values) {
+        int count = values != null ? values.length : 0;
+        if (count != args.length) {
+            throw new IllegalArgumentException("CompiledQuery: " + args.length + " parametre bekleniyordu, " + count + " verildi.");
+        }
+        // Çağıranın dizisi sonradan değiştirilebilir; sorgu kendi kopyasını tutar.
+        return new CompiledQuery<>(type, sql, count == 0 ? NO_VALUES : values.clone(), selectsAllColumns);
+    }
+
+    public String getQuery() {
+        return sql;
+    }
+
+    /**
+     * Parametreleri tipleriyle (Mapper.bindArgument) verilen derlenmiş ifadeye veya sorguya bağlar.
+     * Yer tutucu sırası 1'den başlar.
+     */
+    public void bindTo(SQLiteProgram program) {
+        for (int i = 0; i < args.length; i++) {
+            Mapper.bindArgument(program, i + 1, args[i]);
+        }
+    }
+
+    /** Parametre değerlerinin metin hali (Mapper.toSqlArgument); rawQuery ve loglar için. */
+    public String[] getWhereArgs() {
+        if (args.length == 0) return NO_ARGS;
+        String[] text = new String[args.length];
+        for (int i = 0; i < args.length; i++) {
+            text[i] = Mapper.toSqlArgument(args[i]);
+        }
+        return text;
+    }
+
+    /** index. parametrenin (0'dan başlar) bağlanacak değeri; değiştirilmemelidir. */
+    public Object getArg(int index) {
+        return args[index];
+    }
+
+    /** SQL'deki "?" parametre yeri sayısı. */
+    public int getArgCount() {
+        return args.length;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /** Sorgu tüm sütunları (SELECT *) okuyorsa true döner. */
+    public boolean selectsAllColumns() {
+        return selectsAllColumns;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.List;
 
 import lib.persistence.annotations.DbTableAnnotation;
+import lib.persistence.profile.Mapper;
 
 /**
  * SQL SELECT sorgusu oluşturmak için Builder desenini uygulayan generic bir sınıf.
@@ -18,11 +19,16 @@ public class Select<T> {
     private final Class<T> type;
     private final String tableName;
     private final List<String> whereClauses = new ArrayList<>();
-    private final List<String> whereArgs = new ArrayList<>();
+    // Parametre değerleri tipleriyle saklanır; sorgu çalışırken bindLong/bindDouble/... ile bağlanır.
+    private final List<Object> whereValues = new ArrayList<>();
     private final List<String> orderByClauses = new ArrayList<>();
     private final List<String> columnsToSelect = new ArrayList<>();
     private Integer limitCount;
     private Integer limitOffset;
+    private String keysetColumn;
+    private boolean keysetDescending;
+    // Son compile() sonucu; sorgu değiştiğinde silinir.
+    private CompiledQuery<T> compiled;
 
     private Select(Class<T> type) {
         this.type = type;
@@ -31,13 +37,36 @@ public class Select<T> {
         this.columnsToSelect.add("*");
     }
 
+    private Select(Select<T> other) {
+        this.type = other.type;
+        this.tableName = other.tableName;
+        this.whereClauses.addAll(other.whereClauses);
+        this.whereValues.addAll(other.whereValues);
+        this.orderByClauses.addAll(other.orderByClauses);
+        this.columnsToSelect.addAll(other.columnsToSelect);
+        this.limitCount = other.limitCount;
+        this.limitOffset = other.limitOffset;
+        this.keysetColumn = other.keysetColumn;
+        this.keysetDescending = other.keysetDescending;
+        this.compiled = other.compiled;
+    }
+
     public static <T> Select<T> from(Class<T> type) {
         return new Select<>(type);
     }
 
+    /**
+     * Sorgunun bağımsız bir kopyasını döndürür. Aynı temel sorgudan farklı sayfalar
+     * üretmek için kullanılır; kopyaya eklenen koşullar asıl sorguyu etkilemez.
+     */
+    public Select<T> copy() {
+        return new Select<>(this);
+    }
+
     // --- SELECT CLAUSE ---
 
     public Select<T> select(String... columns) {
+        this.compiled = null;
         this.columnsToSelect.clear();
         if (columns != null && columns.length > 0) {
             Collections.addAll(this.columnsToSelect, columns);
@@ -87,18 +116,21 @@ public class Select<T> {
     }
 
     public Select<T> IsNull(String column) {
+        compiled = null;
         whereClauses.add(column + " IS NULL");
         return this;
     }
 
     public Select<T> IsNotNull(String column) {
+        compiled = null;
         whereClauses.add(column + " IS NOT NULL");
         return this;
     }
 
     private Select<T> addCondition(String column, String operator, Object value) {
+        compiled = null;
         whereClauses.add(column + " " + operator + " ?");
-        whereArgs.add(String.valueOf(value));
+        whereValues.add(value);
         return this;
     }
 
@@ -113,10 +145,71 @@ public class Select<T> {
     }
 
     private Select<T> orderBy(String column, String direction) {
+        compiled = null;
         orderByClauses.add(column + " " + direction);
         return this;
     }
 
+    // --- KEYSET (SEEK) SAYFALAMA ---
+
+    /**
+     * Sonuçları column'a göre artan sırada, verilen değerden sonrasından başlatır.
+     * Column benzersiz olmalıdır (ör. birincil anahtar); değilse eşit değerli satırlar
+     * atlanmasın diye {@link #after(String, Object, Object)} kullanılmalıdır.
+     */
+    public Select<T> after(String column, Object lastValue) {
+        return keyset(column, false, lastValue, null);
+    }
+
+    /**
+     * Keyset sayfalama: column'a göre artan sırada (column, birincil anahtar) çiftinden
+     * sonraki satırları seçer. Eşit column değerleri birincil anahtar ile sıralanır, böylece
+     * sayfa sınırında satır atlanmaz veya tekrarlanmaz. OFFSET'in aksine atlanan satırlar
+     * taranmaz; column üzerinde indeks varsa her sayfa sabit maliyetlidir.
+     *
+     * lastValue ve lastKey null ise sadece sıralama uygulanır (ilk sayfa).
+     * Column NULL değer içermemelidir.
+     */
+    public Select<T> after(String column, Object lastValue, Object lastKey) {
+        return keyset(column, false, lastValue, lastKey);
+    }
+
+    /** {@link #after(String, Object, Object)} ile aynı, ancak azalan sırada. */
+    public Select<T> afterDesc(String column, Object lastValue, Object lastKey) {
+        return keyset(column, true, lastValue, lastKey);
+    }
+
+    private Select<T> keyset(String column, boolean descending, Object lastValue, Object lastKey) {
+        String primaryKey = Mapper.getPrimaryKeyColumnName(type);
+        boolean tieBreak = !column.equalsIgnoreCase(primaryKey);
+        String direction = descending ? "DESC" : "ASC";
+        String operator = descending ? "<" : ">";
+
+        this.compiled = null;
+        this.keysetColumn = column;
+        this.keysetDescending = descending;
+
+        if (lastValue != null) {
+            if (tieBreak && lastKey != null) {
+                // Satır değeri karşılaştırması ((a, b) > (?, ?)) SQLite 3.15 gerektirir; açık hali kullanılır.
+                whereClauses.add("(" + column + " " + operator + " ? OR (" + column + " = ? AND "
+                        + primaryKey + " " + operator + " ?))");
+                whereValues.add(lastValue);
+                whereValues.add(lastValue);
+                whereValues.add(lastKey);
+            } else {
+                whereClauses.add(column + " " + operator + " ?");
+                whereValues.add(lastValue);
+            }
+        }
+
+        orderBy(column, direction);
+        if (tieBreak) {
+            orderBy(primaryKey, direction);
+        }
+        return this;
+    }
+
     // --- LIMIT / OFFSET CLAUSES ---
 
     public Select<T> limit(int count) {
@@ -124,6 +217,7 @@ public class Select<T> {
     }
 
     public Select<T> limit(int offset, int count) {
+        this.compiled = null;
         this.limitOffset = offset;
         this.limitCount = count;
         return this;
@@ -131,7 +225,25 @@ public class Select<T> {
 
     // --- FINAL QUERY BUILDER ---
 
+    /**
+     * Sorgunun o anki halini değişmez bir CompiledQuery olarak dondurur. Sonuç, Select tekrar
+     * değiştirilene kadar saklanır; aynı Select ile yapılan ardışık çalıştırmalar SQL'i yeniden üretmez.
+     * Dönen sorgu thread'ler arasında paylaşılabilir ve static sabit olarak tutulabilir.
+     */
+    public CompiledQuery<T> compile() {
+        CompiledQuery<T> result = compiled;
+        if (result == null) {
+            result = new CompiledQuery<>(type, buildQuery(), whereValues.toArray(), selectsAllColumns());
+            compiled = result;
+        }
+        return result;
+    }
+
     public String getQuery() {
+        return compile().getQuery();
+    }
+
+    private String buildQuery() {
         StringBuilder query = new StringBuilder("SELECT ");
         query.append(String.join(", ", columnsToSelect));
         query.append(" FROM ").append(tableName);
@@ -156,11 +268,36 @@ public class Select<T> {
         return query.toString();
     }
 
+    /** Parametre değerlerinin metin hali (Mapper.toSqlArgument); rawQuery ile kullanmak için. */
     public String[] getWhereArgs() {
-        return whereArgs.toArray(new String[0]);
+        return compile().getWhereArgs();
     }
 
     public Class<T> getType() {
         return type;
     }
+
+    /** select(...) ile sütun seçilmediyse (SELECT *) true döner. */
+    public boolean selectsAllColumns() {
+        return columnsToSelect.size() == 1 && "*".equals(columnsToSelect.get(0));
+    }
+
+    /** orderBy/orderByDesc veya after/afterDesc ile sıralama eklendiyse true döner. */
+    public boolean hasOrderBy() {
+        return !orderByClauses.isEmpty();
+    }
+
+    /** limit(...) çağrıldıysa true döner. */
+    public boolean hasLimit() {
+        return limitCount != null;
+    }
+
+    /** Keyset sayfalamada kullanılan sütun; after/afterDesc çağrılmadıysa null. */
+    public String getKeysetColumn() {
+        return keysetColumn;
+    }
+
+    public boolean isKeysetDescending() {
+        return keysetDescending;
+    }
 }
\ No newline at end of file
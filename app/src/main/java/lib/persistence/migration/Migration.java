@@ -0,0 +1,32 @@
+package lib.persistence.migration;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Belirli bir sürüm aralığı için elle yazılan şema/veri geçiş adımı (ör. sütun yeniden adlandırma,
+ * veri dönüştürme). SchemaMigrator, otomatik şema eşitlemesinden önce bu adımları sırayla çalıştırır.
+ *
+ * Adım, onUpgrade transaction'ı içinde çalışır; hata fırlatırsa tüm yükseltme geri alınır.
+ */
+public abstract class Migration {
+    private final int startVersion;
+    private final int endVersion;
+
+    protected Migration(int startVersion, int endVersion) {
+        if (endVersion <= startVersion) {
+            throw new IllegalArgumentException("Migration bitiş sürümü başlangıçtan büyük olmalıdır: " + startVersion + " -> " + endVersion);
+        }
+        this.startVersion = startVersion;
+        this.endVersion = endVersion;
+    }
+
+    public int getStartVersion() {
+        return startVersion;
+    }
+
+    public int getEndVersion() {
+        return endVersion;
+    }
+
+    public abstract void migrate(SQLiteDatabase db);
+}
@@ -0,0 +1,218 @@
+package lib.persistence.migration;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import lib.persistence.command.definition.CreateIndexCommand;
+import lib.persistence.command.definition.CreateTableCommand;
+import lib.persistence.profile.DbColumn;
+import lib.persistence.profile.Mapper;
+
+/**
+ * Veriyi koruyarak şema yükseltir. Önce sürüm aralığına düşen kayıtlı Migration adımlarını
+ * çalıştırır, ardından her model tipinin Mapper.classToDbColumns tanımını PRAGMA table_info ile
+ * karşılaştırır:
+ * <ul>
+ *     <li>Tablo yoksa oluşturulur.</li>
+ *     <li>Eksik, nullable ve UNIQUE olmayan sütunlar ALTER TABLE ADD COLUMN ile eklenir.</li>
+ *     <li>Tip, birincil anahtar, NOT NULL veya UNIQUE değişikliği gibi ALTER TABLE ile yapılamayan
+ *     durumlarda tablo yeniden kurulur: yeni tablo oluşturulur, ortak sütunlar kopyalanır, eski tablo
+ *     silinip yenisi yeniden adlandırılır.</li>
+ *     <li>Modelde olmayan sütunlar, eklemeleri engellemedikleri sürece (NOT NULL ve varsayılansız değilse) korunur.</li>
+ * </ul>
+ * Son olarak annotation ile tanımlı eksik indeksler oluşturulur. SQLiteOpenHelper onUpgrade'i
+ * bir transaction içinde çağırdığı için tüm adımlar birlikte commit edilir veya geri alınır.
+ *
+ * Dolu bir tabloya NOT NULL sütun eklemek veya NULL içeren sütunu NOT NULL yapmak kopyalamada
+ * hata verir; bu durumda önce değerleri dolduran bir Migration adımı kaydedilmelidir.
+ * Aynı şekilde mevcut bir sütun UNIQUE yapılıyorsa ve tabloda tekrar eden değerler varsa kopyalama
+ * kısıt hatası verir ve yükseltme geri alınır; tekrarları silen veya birleştiren bir Migration
+ * adımı (ör. "DELETE ... WHERE id NOT IN (SELECT MIN(id) ... GROUP BY sütun)") kaydedilmelidir.
+ */
+public class SchemaMigrator {
+
+    private final List<Class<?>> entityTypes = new ArrayList<>();
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator(Collection<Class<?>> entityTypes, Collection<Migration> migrations) {
+        this.entityTypes.addAll(entityTypes);
+        this.migrations.addAll(migrations);
+    }
+
+    public void migrate(SQLiteDatabase db, int oldVersion, int newVersion) {
+        runMigrations(db, oldVersion, newVersion);
+        for (Class<?> type : entityTypes) {
+            reconcileTable(db, type);
+        }
+        for (Class<?> type : entityTypes) {
+            for (CreateIndexCommand command : CreateIndexCommand.buildAll(type)) {
+                db.execSQL(command.getQuery());
+            }
+        }
+    }
+
+    /**
+     * Mevcut sürümden başlayan ve hedefi aşmayan en uzun adımı seçerek ilerler. Adımı olmayan
+     * sürümler atlanır; bu sürümlerin değişiklikleri otomatik eşitleme ile uygulanır.
+     */
+    private void runMigrations(SQLiteDatabase db, int oldVersion, int newVersion) {
+        int version = oldVersion;
+        while (version < newVersion) {
+            Migration next = null;
+            for (Migration migration : migrations) {
+                if (migration.getStartVersion() == version && migration.getEndVersion() <= newVersion
+                        && (next == null || migration.getEndVersion() > next.getEndVersion())) {
+                    next = migration;
+                }
+            }
+            if (next == null) {
+                version++;
+                continue;
+            }
+            next.migrate(db);
+            version = next.getEndVersion();
+        }
+    }
+
+    private void reconcileTable(SQLiteDatabase db, Class<?> type) {
+        String tableName = Mapper.getTableName(type);
+        Map<String, ExistingColumn> existing = readColumns(db, tableName);
+        if (existing.isEmpty()) {
+            db.execSQL(CreateTableCommand.build(type).getQuery());
+            return;
+        }
+
+        Set<String> uniqueColumns = readUniqueColumns(db, tableName);
+        Set<String> modelColumns = new HashSet<>();
+        List<DbColumn> columnsToAdd = new ArrayList<>();
+        boolean rebuild = false;
+
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            String key = column.getColumnName().toLowerCase(Locale.ROOT);
+            modelColumns.add(key);
+            ExistingColumn current = existing.get(key);
+            if (current == null) {
+                // SQLite; PRIMARY KEY, UNIQUE ve varsayılansız NOT NULL sütunu ALTER TABLE ile ekleyemez.
+                if (column.isPrimaryKey() || column.isUnique() || !column.isNullable()) {
+                    rebuild = true;
+                } else {
+                    columnsToAdd.add(column);
+                }
+                continue;
+            }
+            boolean unique = column.isUnique() && !column.isPrimaryKey();
+            if (!current.type.equalsIgnoreCase(column.getDataType())
+                    || current.isPrimaryKey != column.isPrimaryKey()
+                    || (current.isNotNull != !column.isNullable() && !column.isPrimaryKey())
+                    || unique != uniqueColumns.contains(key)) {
+                rebuild = true;
+            }
+        }
+        for (ExistingColumn column : existing.values()) {
+            // Modelde olmayan NOT NULL ve varsayılansız sütun, yeni kayıtların eklenmesini engeller.
+            if (!modelColumns.contains(column.name.toLowerCase(Locale.ROOT))
+                    && column.isNotNull && !column.hasDefault && !column.isPrimaryKey) {
+                rebuild = true;
+            }
+        }
+
+        if (rebuild) {
+            rebuildTable(db, type, tableName, existing);
+            return;
+        }
+        for (DbColumn column : columnsToAdd) {
+            db.execSQL("ALTER TABLE " + tableName + " ADD COLUMN " + column.getColumnName() + " " + column.getDataType());
+        }
+    }
+
+    // Tabloyu güncel tanımla yeniden kurar; hem eski hem yeni tanımda olan sütunların verisi korunur.
+    private void rebuildTable(SQLiteDatabase db, Class<?> type, String tableName, Map<String, ExistingColumn> existing) {
+        String tempName = "_new_" + tableName;
+        List<String> common = new ArrayList<>();
+        for (DbColumn column : Mapper.classToDbColumns(type)) {
+            if (existing.containsKey(column.getColumnName().toLowerCase(Locale.ROOT))) {
+                common.add(column.getColumnName());
+            }
+        }
+        String columnList = String.join(", ", common);
+
+        db.execSQL("DROP TABLE IF EXISTS " + tempName);
+        db.execSQL(CreateTableCommand.build(type, tempName).getQuery());
+        if (!common.isEmpty()) {
+            db.execSQL("INSERT INTO " + tempName + " (" + columnList + ") SELECT " + columnList + " FROM " + tableName);
+        }
+        db.execSQL("DROP TABLE " + tableName);
+        db.execSQL("ALTER TABLE " + tempName + " RENAME TO " + tableName);
+    }
+
+    private static Map<String, ExistingColumn> readColumns(SQLiteDatabase db, String tableName) {
+        Map<String, ExistingColumn> columns = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info(" + tableName + ")", null)) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            int typeIndex = cursor.getColumnIndexOrThrow("type");
+            int notNullIndex = cursor.getColumnIndexOrThrow("notnull");
+            int defaultIndex = cursor.getColumnIndexOrThrow("dflt_value");
+            int pkIndex = cursor.getColumnIndexOrThrow("pk");
+            while (cursor.moveToNext()) {
+                ExistingColumn column = new ExistingColumn(
+                        cursor.getString(nameIndex),
+                        cursor.getString(typeIndex),
+                        cursor.getInt(notNullIndex) != 0,
+                        !cursor.isNull(defaultIndex),
+                        cursor.getInt(pkIndex) > 0);
+                columns.put(column.name.toLowerCase(Locale.ROOT), column);
+            }
+        }
+        return columns;
+    }
+
+    // UNIQUE kısıtından (origin = 'u') gelen tek sütunlu indekslerin sütunları.
+    private static Set<String> readUniqueColumns(SQLiteDatabase db, String tableName) {
+        List<String> indexNames = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("PRAGMA index_list(" + tableName + ")", null)) {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            int uniqueIndex = cursor.getColumnIndexOrThrow("unique");
+            int originIndex = cursor.getColumnIndex("origin");
+            while (cursor.moveToNext()) {
+                boolean fromConstraint = originIndex < 0 || "u".equals(cursor.getString(originIndex));
+                if (cursor.getInt(uniqueIndex) != 0 && fromConstraint) {
+                    indexNames.add(cursor.getString(nameIndex));
+                }
+            }
+        }
+        Set<String> columns = new HashSet<>();
+        for (String indexName : indexNames) {
+            try (Cursor cursor = db.rawQuery("PRAGMA index_info(" + indexName + ")", null)) {
+                if (cursor.getCount() == 1 && cursor.moveToFirst()) {
+                    columns.add(cursor.getString(cursor.getColumnIndexOrThrow("name")).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static final class ExistingColumn {
+        final String name;
+        final String type;
+        final boolean isNotNull;
+        final boolean hasDefault;
+        final boolean isPrimaryKey;
+
+        ExistingColumn(String name, String type, boolean isNotNull, boolean hasDefault, boolean isPrimaryKey) {
+            this.name = name;
+            this.type = type != null ? type : "";
+            this.isNotNull = isNotNull;
+            this.hasDefault = hasDefault;
+            this.isPrimaryKey = isPrimaryKey;
+        }
+    }
+}
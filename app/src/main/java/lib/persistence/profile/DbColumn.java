@@ -1,5 +1,7 @@
 package lib.persistence.profile;
 
+import java.lang.reflect.Field;
+
 public class DbColumn {
     private int ordinal;
     private String fieldName;
@@ -8,8 +10,15 @@ public class DbColumn {
     private boolean isPrimaryKey;
     private boolean isIdentity;
     private boolean isNullable;
+    private boolean isUnique;
+    // Yansıma ile erişim için önceden çözülmüş (setAccessible yapılmış) alan
+    private Field field;
 
     public DbColumn(int ordinal, String fieldName, String columnName, String dataType, boolean isPrimaryKey, boolean isIdentity, boolean isNullable) {
+        this(ordinal, fieldName, columnName, dataType, isPrimaryKey, isIdentity, isNullable, false);
+    }
+
+    public DbColumn(int ordinal, String fieldName, String columnName, String dataType, boolean isPrimaryKey, boolean isIdentity, boolean isNullable, boolean isUnique) {
         this.ordinal = ordinal;
         this.fieldName = fieldName;
         this.columnName = columnName;
@@ -17,6 +26,7 @@ public class DbColumn {
         this.isPrimaryKey = isPrimaryKey;
         this.isIdentity = isIdentity;
         this.isNullable = isNullable;
+        this.isUnique = isUnique;
     }
 
     public int getOrdinal() {
@@ -46,4 +56,16 @@ public class DbColumn {
     public boolean isNullable() {
         return isNullable;
     }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    void setField(Field field) {
+        this.field = field;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package lib.persistence.profile;
+
+/**
+ * @DbIndex / @DbUniqueIndex annotation'larından çözülen indeks tanımı.
+ */
+public class DbIndexDefinition {
+    private final String name;
+    private final String[] columns;
+    private final boolean isUnique;
+
+    public DbIndexDefinition(String name, String[] columns, boolean isUnique) {
+        this.name = name;
+        this.columns = columns;
+        this.isUnique = isUnique;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String[] getColumns() {
+        return columns.clone();
+    }
+
+    public boolean isUnique() {
+        return isUnique;
+    }
+}
@@ -0,0 +1,37 @@
+package lib.persistence.profile;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteProgram;
+
+/**
+ * Bir model için derleme zamanında üretilen eşleyici (ör. Todo_Mapper).
+ * Yansıma kullanmadan alanlara doğrudan erişir; Mapper mevcutsa bunu tercih eder.
+ *
+ * @param <T> Eşlenen model tipi.
+ */
+public interface EntityMapper<T> extends RowMapper<T> {
+
+    /**
+     * Cursor'daki sütun indekslerini ordinal sırasına göre çözer (-1: sütun sorguda yok).
+     * Aynı cursor'ın tüm satırları için bir kez çağrılması yeterlidir.
+     */
+    int[] resolveColumns(Cursor cursor);
+
+    /** Cursor'ın bulunduğu satırı, önceden çözülmüş indekslerle nesneye dönüştürür. */
+    T mapRow(Cursor cursor, int[] columnIndexes);
+
+    @Override
+    default T mapRow(Cursor cursor) {
+        return mapRow(cursor, resolveColumns(cursor));
+    }
+
+    /** InsertCommand.buildSql sırasıyla INSERT parametrelerini bağlar. */
+    void bindInsert(SQLiteProgram program, T object);
+
+    /** UpdateCommand.buildSql sırasıyla UPDATE parametrelerini bağlar. */
+    void bindUpdate(SQLiteProgram program, T object);
+
+    /** Identity olmayan sütunları ContentValues'a yazar. */
+    ContentValues toContentValues(T object);
+}
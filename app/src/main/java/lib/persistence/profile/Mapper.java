@@ -2,6 +2,7 @@ package lib.persistence.profile;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteProgram;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
@@ -15,17 +16,54 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import lib.persistence.annotations.DbColumnAnnotation;
+import lib.persistence.annotations.DbIndex;
 import lib.persistence.annotations.DbTableAnnotation;
+import lib.persistence.annotations.DbUniqueIndex;
 
 
 public class Mapper {
 
     // DbColumn listesini önbellekte saklamak için tek bir cache kullanıyoruz
     private static final Map<Class<?>, List<DbColumn>> dbColumnCache = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, List<DbIndexDefinition>> indexCache = new ConcurrentHashMap<>();
 
     private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    // Yansıma ile eşleme planları: tip -> (cursor sütun listesi -> plan)
+    private static final Map<Class<?>, Map<String, MappingPlan<?>>> mappingPlanCache = new ConcurrentHashMap<>();
+
+    // Derleme zamanında üretilen eşleyiciler; üretilmemiş tipler için NO_ENTITY_MAPPER saklanır.
+    private static final Map<Class<?>, Object> entityMapperCache = new ConcurrentHashMap<>();
+    private static final Object NO_ENTITY_MAPPER = new Object();
+    private static final String ENTITY_MAPPER_SUFFIX = "_Mapper";
+
+    // --- ÜRETİLMİŞ EŞLEYİCİLER ---
+
+    /**
+     * EntityMapperProcessor'ın tip için ürettiği eşleyiciyi (ör. app.model.Todo_Mapper) döndürür.
+     * Üretilmiş sınıf yoksa null döner ve çağıran yansımaya geri döner. Sonuç önbelleğe alınır.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityMapper<T> getEntityMapper(Class<T> type) {
+        Object mapper = entityMapperCache.computeIfAbsent(type, Mapper::loadEntityMapper);
+        return mapper == NO_ENTITY_MAPPER ? null : (EntityMapper<T>) mapper;
+    }
+
+    private static Object loadEntityMapper(Class<?> type) {
+        try {
+            Class<?> mapperClass = Class.forName(type.getName() + ENTITY_MAPPER_SUFFIX, true, type.getClassLoader());
+            if (EntityMapper.class.isAssignableFrom(mapperClass)) {
+                return mapperClass.getDeclaredConstructor().newInstance();
+            }
+        } catch (ClassNotFoundException e) {
+            // Üretilmiş eşleyici yok; yansıma kullanılacak.
+        } catch (ReflectiveOperationException e) {
+            System.err.println("loadEntityMapper: " + type.getSimpleName() + " eşleyicisi yüklenemedi. " + e.getMessage());
+        }
+        return NO_ENTITY_MAPPER;
+    }
+
     // --- YENİ YAPI: DbColumn Üreten ve Önbelleğe Alan Metot ---
 
     /**
@@ -58,8 +96,73 @@ public class Mapper {
             currentClass = currentClass.getSuperclass();
         }
 
-        // ordinal'a göre sırala
-        Collections.sort(columns, Comparator.comparingInt(DbColumn::getOrdinal));
+        // ordinal'a, eşitse sütun adına göre sırala. getDeclaredFields() sırası belirsiz olduğu için
+        // eşitlik alan sırasına bırakılmaz; EntityMapperProcessor aynı sırayla üretir.
+        Collections.sort(columns, Comparator.comparingInt(DbColumn::getOrdinal).thenComparing(DbColumn::getColumnName));
+        return columns;
+    }
+
+    /**
+     * Bir model veya DTO sınıfının sütun adlarını ordinal sırasıyla döndürür.
+     */
+    public static String[] getColumnNames(Class<?> type) {
+        List<DbColumn> columns = classToDbColumns(type);
+        String[] names = new String[columns.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = columns.get(i).getColumnName();
+        }
+        return names;
+    }
+
+    /**
+     * Tipin @DbIndex ve @DbUniqueIndex annotation'larından (sınıf ve alan seviyesinde) çözülen
+     * indeksleri döndürür. Sonuçlar bir önbellekte saklanır.
+     */
+    public static List<DbIndexDefinition> getIndexes(Class<?> type) {
+        return indexCache.computeIfAbsent(type, Mapper::createIndexesForClass);
+    }
+
+    private static List<DbIndexDefinition> createIndexesForClass(Class<?> type) {
+        String tableName = getTableName(type);
+        List<DbIndexDefinition> indexes = new ArrayList<>();
+
+        for (DbIndex index : type.getAnnotationsByType(DbIndex.class)) {
+            indexes.add(createIndex(tableName, index.name(), requireColumns(type, index.columns()), false));
+        }
+        for (DbUniqueIndex index : type.getAnnotationsByType(DbUniqueIndex.class)) {
+            indexes.add(createIndex(tableName, index.name(), requireColumns(type, index.columns()), true));
+        }
+        for (DbColumn column : classToDbColumns(type)) {
+            Field field = column.getField();
+            for (DbIndex index : field.getAnnotationsByType(DbIndex.class)) {
+                indexes.add(createIndex(tableName, index.name(), prepend(column.getColumnName(), index.columns()), false));
+            }
+            for (DbUniqueIndex index : field.getAnnotationsByType(DbUniqueIndex.class)) {
+                indexes.add(createIndex(tableName, index.name(), prepend(column.getColumnName(), index.columns()), true));
+            }
+        }
+        return Collections.unmodifiableList(indexes);
+    }
+
+    // İsim verilmediyse "idx_Tablo_sutun1_sutun2" (UNIQUE için "uidx_") üretilir.
+    private static DbIndexDefinition createIndex(String tableName, String name, String[] columns, boolean isUnique) {
+        if (name.isEmpty()) {
+            name = (isUnique ? "uidx_" : "idx_") + tableName + "_" + String.join("_", columns);
+        }
+        return new DbIndexDefinition(name, columns, isUnique);
+    }
+
+    private static String[] requireColumns(Class<?> type, String[] columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("Sınıf seviyesindeki indeks için columns belirtilmelidir: " + type.getSimpleName());
+        }
+        return columns;
+    }
+
+    private static String[] prepend(String first, String[] rest) {
+        String[] columns = new String[rest.length + 1];
+        columns[0] = first;
+        System.arraycopy(rest, 0, columns, 1, rest.length);
         return columns;
     }
 
@@ -70,15 +173,19 @@ public class Mapper {
         String columnName = annotation.name().isEmpty() ? field.getName() : annotation.name();
         DbDataType dataType = getDbDataTypeFromFieldType(field.getType());
 
-        return new DbColumn(
+        DbColumn dbColumn = new DbColumn(
                 annotation.ordinal(),
                 field.getName(), // fieldName eklendi
                 columnName,
                 dataType.toString(),
                 annotation.isPrimaryKey(),
                 annotation.isIdentity(),
-                annotation.isNullable()
+                annotation.isNullable(),
+                annotation.isUnique()
         );
+        // Alan bir kez çözülür; satır başına getDeclaredField çağrısı yapılmaz.
+        dbColumn.setField(field);
+        return dbColumn;
     }
 
     // --- NESNE-VERİTABANI EŞLEME METOTLARI ---
@@ -89,43 +196,159 @@ public class Mapper {
      */
     public static <T> T cursorToObject(Cursor cursor, Class<T> type) {
         try {
-            T object = type.getDeclaredConstructor().newInstance();
-            List<DbColumn> columns = classToDbColumns(type);
-            for (DbColumn column : columns) {
-                int columnIndex = cursor.getColumnIndex(column.getColumnName());
-                if (columnIndex != -1 && !cursor.isNull(columnIndex)) {
-                    Field field = type.getDeclaredField(column.getFieldName());
-                    field.setAccessible(true);
-                    setFieldValueFromCursor(field, object, cursor, columnIndex);
-                }
-            }
-            return object;
+            return rowMapperFor(cursor, type).mapRow(cursor);
+        } catch (IllegalStateException e) {
+            throw e;
         } catch (Exception e) {
             throw new IllegalStateException("Nesne eşleme hatası: " + type.getSimpleName(), e);
         }
     }
 
+    /**
+     * Verilen cursor'ın sütun yapısına bağlı bir RowMapper döndürür. Sütun indeksleri ve alanlar
+     * bir kez çözülür; aynı cursor'ın tüm satırları için dönen eşleyici tekrar kullanılmalıdır.
+     * Üretilmiş eşleyici varsa o, yoksa (tip, sütun listesi) başına önbelleklenen MappingPlan kullanılır.
+     */
+    public static <T> RowMapper<T> rowMapperFor(Cursor cursor, Class<T> type) {
+        EntityMapper<T> entityMapper = getEntityMapper(type);
+        if (entityMapper != null) {
+            final int[] columnIndexes = entityMapper.resolveColumns(cursor);
+            return c -> entityMapper.mapRow(c, columnIndexes);
+        }
+        return mappingPlanFor(type, cursor.getColumnNames());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MappingPlan<T> mappingPlanFor(Class<T> type, String[] cursorColumns) {
+        Map<String, MappingPlan<?>> plans = mappingPlanCache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+        String shape = String.join(",", cursorColumns);
+        MappingPlan<?> plan = plans.get(shape);
+        if (plan == null) {
+            plan = MappingPlan.create(type, cursorColumns);
+            // Aynı anda oluşturulan planlar eşdeğerdir; hangisinin kalacağı önemli değil.
+            plans.put(shape, plan);
+        }
+        return (MappingPlan<T>) plan;
+    }
+
     /**
      * Bir nesneyi ContentValues'a dönüştürür.
      */
+    @SuppressWarnings("unchecked")
     public static ContentValues objectToContentValues(Object object) {
+        EntityMapper<Object> entityMapper = (EntityMapper<Object>) getEntityMapper(object.getClass());
+        if (entityMapper != null) {
+            return entityMapper.toContentValues(object);
+        }
         ContentValues contentValues = new ContentValues();
         List<DbColumn> columns = classToDbColumns(object.getClass());
         try {
             for (DbColumn column : columns) {
                 if (!column.isIdentity()) {
-                    Field field = object.getClass().getDeclaredField(column.getFieldName());
-                    field.setAccessible(true);
-                    Object value = field.get(object);
+                    Object value = column.getField().get(object);
                     putInContentValues(contentValues, column.getColumnName(), value);
                 }
             }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+        } catch (IllegalAccessException e) {
             throw new IllegalStateException("ContentValues oluşturulurken hata oluştu.", e);
         }
         return contentValues;
     }
 
+    /**
+     * Nesnenin identity olmayan sütun değerlerini, InsertCommand.buildSql ile üretilen
+     * INSERT cümlesindeki sırayla (1'den başlayarak) derlenmiş ifadeye bağlar.
+     */
+    @SuppressWarnings("unchecked")
+    public static void bindInsertArgs(SQLiteProgram program, Object object) {
+        EntityMapper<Object> entityMapper = (EntityMapper<Object>) getEntityMapper(object.getClass());
+        if (entityMapper != null) {
+            entityMapper.bindInsert(program, object);
+            return;
+        }
+        List<DbColumn> columns = classToDbColumns(object.getClass());
+        try {
+            int index = 1;
+            for (DbColumn column : columns) {
+                if (!column.isIdentity()) {
+                    bindValue(program, index++, column.getField().get(object));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Insert parametreleri bağlanırken hata oluştu.", e);
+        }
+    }
+
+    /**
+     * UpdateCommand.buildSql ile üretilen UPDATE cümlesinin parametrelerini bağlar:
+     * önce birincil anahtar ve identity olmayan sütunlar, en son WHERE için birincil anahtar.
+     */
+    @SuppressWarnings("unchecked")
+    public static void bindUpdateArgs(SQLiteProgram program, Object object) {
+        EntityMapper<Object> entityMapper = (EntityMapper<Object>) getEntityMapper(object.getClass());
+        if (entityMapper != null) {
+            entityMapper.bindUpdate(program, object);
+            return;
+        }
+        List<DbColumn> columns = classToDbColumns(object.getClass());
+        try {
+            int index = 1;
+            Object primaryKeyValue = null;
+            for (DbColumn column : columns) {
+                Field field = column.getField();
+                if (column.isPrimaryKey()) {
+                    primaryKeyValue = field.get(object);
+                } else if (!column.isIdentity()) {
+                    bindValue(program, index++, field.get(object));
+                }
+            }
+            bindValue(program, index, primaryKeyValue);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Update parametreleri bağlanırken hata oluştu.", e);
+        }
+    }
+
+    /**
+     * Tek bir değeri, putInContentValues ile aynı kodlamayı kullanarak derlenmiş ifadeye bağlar.
+     */
+    public static void bindValue(SQLiteProgram program, int index, Object value) {
+        if (value == null) {
+            program.bindNull(index);
+        } else if (value instanceof String) {
+            program.bindString(index, (String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            program.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            program.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            program.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[]) {
+            program.bindBlob(index, (byte[]) value);
+        } else if (value instanceof LocalDateTime) {
+            program.bindString(index, ((LocalDateTime) value).format(dateTimeFormatter));
+        } else if (value instanceof LocalDate) {
+            program.bindString(index, ((LocalDate) value).format(dateFormatter));
+        } else {
+            // putInContentValues desteklenmeyen tipleri yazmaz; aynı sonuç için NULL bağlanır.
+            program.bindNull(index);
+        }
+    }
+
+    /**
+     * Sorgu parametresini tipine göre (INTEGER, REAL, TEXT, BLOB, NULL) bağlar. Kodlama bindValue ile
+     * aynıdır; putInContentValues'in yazmadığı tipler (ör. enum) NULL yerine toSqlArgument metniyle bağlanır.
+     * rawQuery'nin aksine sayılar metne çevrilmez.
+     */
+    public static void bindArgument(SQLiteProgram program, int index, Object value) {
+        if (value == null || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte || value instanceof Double || value instanceof Float
+                || value instanceof Boolean || value instanceof byte[] || value instanceof LocalDateTime || value instanceof LocalDate) {
+            bindValue(program, index, value);
+        } else {
+            program.bindString(index, toSqlArgument(value));
+        }
+    }
+
     // --- YARDIMCI METOTLAR ---
 
     public static String getTableName(Class<?> type) {
@@ -137,7 +360,7 @@ public class Mapper {
         return name;
     }
 
-    private static void putInContentValues(ContentValues values, String key, Object value) {
+    public static void putInContentValues(ContentValues values, String key, Object value) {
         if (value == null) {
             values.putNull(key);
         } else if (value instanceof String) {
@@ -161,34 +384,29 @@ public class Mapper {
         }
     }
 
-    private static void setFieldValueFromCursor(Field field, Object object, Cursor cursor, int columnIndex) throws IllegalAccessException {
-        Class<?> fieldType = field.getType();
-
-        if (fieldType == int.class || fieldType == Integer.class) {
-            field.set(object, cursor.getInt(columnIndex));
-        } else if (fieldType == String.class) {
-            field.set(object, cursor.getString(columnIndex));
-        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
-            field.set(object, cursor.getInt(columnIndex) == 1);
-        } else if (fieldType == long.class || fieldType == Long.class) {
-            field.set(object, cursor.getLong(columnIndex));
-        } else if (fieldType == float.class || fieldType == Float.class) {
-            field.set(object, cursor.getFloat(columnIndex));
-        } else if (fieldType == double.class || fieldType == Double.class) {
-            field.set(object, cursor.getDouble(columnIndex));
-        } else if (fieldType == byte[].class) {
-            field.set(object, cursor.getBlob(columnIndex));
-        } else if (fieldType == LocalDateTime.class) {
-            String value = cursor.getString(columnIndex);
-            if (value != null) {
-                field.set(object, LocalDateTime.parse(value, dateTimeFormatter));
-            }
-        } else if (fieldType == LocalDate.class) {
-            String value = cursor.getString(columnIndex);
-            if (value != null) {
-                field.set(object, LocalDate.parse(value, dateFormatter));
-            }
+    /**
+     * Değeri, putInContentValues'in veritabanına yazdığı biçimde sorgu parametresi metnine çevirir.
+     * Böylece Boolean, LocalDateTime gibi değerler WHERE koşullarında kayıtlı değerle aynı şekilde karşılaştırılır.
+     */
+    public static String toSqlArgument(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "1" : "0";
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).format(dateTimeFormatter);
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(dateFormatter);
         }
+        return String.valueOf(value);
+    }
+
+    /** putInContentValues ile yazılan LocalDateTime metnini geri çözer. */
+    public static LocalDateTime parseLocalDateTime(String value) {
+        return value == null ? null : LocalDateTime.parse(value, dateTimeFormatter);
+    }
+
+    /** putInContentValues ile yazılan LocalDate metnini geri çözer. */
+    public static LocalDate parseLocalDate(String value) {
+        return value == null ? null : LocalDate.parse(value, dateFormatter);
     }
 
     private static DbDataType getDbDataTypeFromFieldType(Class<?> fieldType) {
@@ -216,8 +434,7 @@ public class Mapper {
         try {
             for (DbColumn column : columns) {
                 if (column.isIdentity()) {
-                    Field field = object.getClass().getDeclaredField(column.getFieldName());
-                    field.setAccessible(true);
+                    Field field = column.getField();
 
                     Class<?> fieldType = field.getType();
 
@@ -230,7 +447,7 @@ public class Mapper {
                     return; // Sadece bir identity alan olduğu varsayıldı
                 }
             }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+        } catch (IllegalAccessException e) {
             // Hata durumunda loglama yapmak önemlidir.
             System.err.println("setId: Nesneye ID atanırken hata oluştu. " + e.getMessage());
         }
@@ -254,6 +471,64 @@ public class Mapper {
         return "id";
     }
 
+    /**
+     * Upsert için çakışma hedefi olan sütunları döndürür. Birincil anahtar identity değilse
+     * birincil anahtar, identity ise isUnique ile işaretli sütunlar kullanılır.
+     *
+     * @throws IllegalArgumentException Uygun bir çakışma hedefi yoksa.
+     */
+    public static String[] getConflictColumns(Class<?> type) {
+        List<DbColumn> columns = classToDbColumns(type);
+        List<String> unique = new ArrayList<>();
+        for (DbColumn column : columns) {
+            if (column.isPrimaryKey() && !column.isIdentity()) {
+                return new String[]{column.getColumnName()};
+            }
+            if (column.isUnique()) {
+                unique.add(column.getColumnName());
+            }
+        }
+        if (unique.isEmpty()) {
+            throw new IllegalArgumentException("Upsert için çakışma hedefi bulunamadı: " + type.getSimpleName()
+                    + ". Identity olmayan bir birincil anahtar veya isUnique sütun tanımlayın.");
+        }
+        return unique.toArray(new String[0]);
+    }
+
+    /**
+     * Verilen sütunların nesnedeki değerlerini startIndex'ten başlayarak sırayla bağlar.
+     *
+     * @return Bağlanacak bir sonraki parametre indeksi.
+     */
+    public static int bindColumnArgs(SQLiteProgram program, Object object, String[] columnNames, int startIndex) {
+        int index = startIndex;
+        for (String columnName : columnNames) {
+            bindValue(program, index++, getColumnValue(object, columnName));
+        }
+        return index;
+    }
+
+    /**
+     * Bir nesnenin verilen sütuna karşılık gelen alanındaki değeri döndürür.
+     *
+     * @param object Değeri alınacak olan nesne.
+     * @param columnName Sütun adı (büyük/küçük harf duyarsız).
+     * @return Alan değeri veya sütun bulunamazsa null.
+     */
+    public static Object getColumnValue(Object object, String columnName) {
+        List<DbColumn> columns = classToDbColumns(object.getClass());
+        try {
+            for (DbColumn column : columns) {
+                if (column.getColumnName().equalsIgnoreCase(columnName)) {
+                    return column.getField().get(object);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            System.err.println("getColumnValue: Sütun değeri alınırken hata oluştu. " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Bir nesnenin birincil anahtar (primary key) alanındaki değeri döndürür.
      *
@@ -265,12 +540,10 @@ public class Mapper {
         try {
             for (DbColumn column : columns) {
                 if (column.isPrimaryKey()) {
-                    Field field = object.getClass().getDeclaredField(column.getFieldName());
-                    field.setAccessible(true);
-                    return field.get(object);
+                    return column.getField().get(object);
                 }
             }
-        } catch (NoSuchFieldException | IllegalAccessException e) {
+        } catch (IllegalAccessException e) {
             // Hata durumunda loglama yapmak önemlidir.
             System.err.println("getPrimaryKeyValue: Birincil anahtar değeri alınırken hata oluştu. " + e.getMessage());
         }
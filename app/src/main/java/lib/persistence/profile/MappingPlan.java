@@ -0,0 +1,134 @@
+package lib.persistence.profile;
+
+import android.database.Cursor;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Yansıma ile eşleme için bir cursor şekline (sütun listesine) göre bir kez çözülen plan.
+ * Sütun indeksleri, Field nesneleri ve sütun başına tipe özel atayıcılar önceden hazırlanır;
+ * satır başına sadece model nesnesi oluşturulur.
+ *
+ * Planlar Mapper içinde (model tipi, sütun listesi) anahtarıyla önbelleğe alınır.
+ *
+ * @param <T> Eşlenen model tipi.
+ */
+final class MappingPlan<T> implements RowMapper<T> {
+
+    @FunctionalInterface
+    interface ColumnSetter {
+        void set(Object target, Cursor cursor, int columnIndex) throws IllegalAccessException;
+    }
+
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final int[] columnIndexes;
+    private final ColumnSetter[] setters;
+
+    private MappingPlan(Class<T> type, Constructor<T> constructor, int[] columnIndexes, ColumnSetter[] setters) {
+        this.type = type;
+        this.constructor = constructor;
+        this.columnIndexes = columnIndexes;
+        this.setters = setters;
+    }
+
+    /**
+     * Cursor'daki sütun adlarına göre planı oluşturur. Cursor'da bulunmayan sütunlar plana girmez.
+     */
+    static <T> MappingPlan<T> create(Class<T> type, String[] cursorColumns) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+            List<DbColumn> columns = Mapper.classToDbColumns(type);
+            List<Integer> indexes = new ArrayList<>(columns.size());
+            List<ColumnSetter> setters = new ArrayList<>(columns.size());
+            for (DbColumn column : columns) {
+                int columnIndex = indexOf(cursorColumns, column.getColumnName());
+                if (columnIndex != -1) {
+                    indexes.add(columnIndex);
+                    setters.add(setterFor(column.getField()));
+                }
+            }
+
+            int[] indexArray = new int[indexes.size()];
+            for (int i = 0; i < indexArray.length; i++) {
+                indexArray[i] = indexes.get(i);
+            }
+            return new MappingPlan<>(type, constructor, indexArray, setters.toArray(new ColumnSetter[0]));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Nesne eşleme hatası: " + type.getSimpleName() + " parametresiz yapıcıya sahip değil.", e);
+        }
+    }
+
+    @Override
+    public T mapRow(Cursor cursor) {
+        try {
+            T object = constructor.newInstance();
+            for (int i = 0; i < setters.length; i++) {
+                int columnIndex = columnIndexes[i];
+                if (!cursor.isNull(columnIndex)) {
+                    setters[i].set(object, cursor, columnIndex);
+                }
+            }
+            return object;
+        } catch (Exception e) {
+            throw new IllegalStateException("Nesne eşleme hatası: " + type.getSimpleName(), e);
+        }
+    }
+
+    // Cursor.getColumnIndex ile aynı kural: büyük/küçük harfe duyarsız ilk eşleşme
+    private static int indexOf(String[] cursorColumns, String columnName) {
+        for (int i = 0; i < cursorColumns.length; i++) {
+            if (cursorColumns[i].equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Alan tipine özel atayıcıyı döndürür. İlkel alanlar setInt/setLong gibi metotlarla
+     * kutulama (boxing) yapılmadan yazılır.
+     */
+    private static ColumnSetter setterFor(Field field) {
+        Class<?> fieldType = field.getType();
+
+        if (fieldType == int.class) {
+            return (target, cursor, i) -> field.setInt(target, cursor.getInt(i));
+        } else if (fieldType == Integer.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getInt(i));
+        } else if (fieldType == String.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getString(i));
+        } else if (fieldType == boolean.class) {
+            return (target, cursor, i) -> field.setBoolean(target, cursor.getInt(i) == 1);
+        } else if (fieldType == Boolean.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getInt(i) == 1);
+        } else if (fieldType == long.class) {
+            return (target, cursor, i) -> field.setLong(target, cursor.getLong(i));
+        } else if (fieldType == Long.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getLong(i));
+        } else if (fieldType == float.class) {
+            return (target, cursor, i) -> field.setFloat(target, cursor.getFloat(i));
+        } else if (fieldType == Float.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getFloat(i));
+        } else if (fieldType == double.class) {
+            return (target, cursor, i) -> field.setDouble(target, cursor.getDouble(i));
+        } else if (fieldType == Double.class) {
+            return (target, cursor, i) -> field.set(target, cursor.getDouble(i));
+        } else if (fieldType == byte[].class) {
+            return (target, cursor, i) -> field.set(target, cursor.getBlob(i));
+        } else if (fieldType == LocalDateTime.class) {
+            return (target, cursor, i) -> field.set(target, Mapper.parseLocalDateTime(cursor.getString(i)));
+        } else if (fieldType == LocalDate.class) {
+            return (target, cursor, i) -> field.set(target, Mapper.parseLocalDate(cursor.getString(i)));
+        }
+        // Desteklenmeyen tipler önceki davranışta olduğu gibi atlanır.
+        return (target, cursor, i) -> { };
+    }
+}
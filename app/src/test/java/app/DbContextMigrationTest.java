@@ -0,0 +1,113 @@
+package app;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import app.model.BtDevice;
+import app.model.Todo;
+import app.repositories.BtDeviceRepository;
+import app.repositories.TodoRepository;
+import lib.persistence.DbResult;
+import lib.persistence.command.definition.CreateTableCommand;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 5 -> 6 yükseltmesi: BtDevices.address UNIQUE olurken tekrar eden adresler en küçük id'li kayıt
+ * bırakılarak temizlenmeli, diğer veriler korunmalı ve yeni kısıt uygulanmalı.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DbContextMigrationTest {
+
+    private static final String DB_NAME = "local.db";
+
+    private Context context;
+    private DbContext dbContext;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        context.deleteDatabase(DB_NAME);
+
+        // 5. sürümün şeması: Todo değişmedi, BtDevices.address UNIQUE değil.
+        File file = context.getDatabasePath(DB_NAME);
+        file.getParentFile().mkdirs();
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        try {
+            db.execSQL(CreateTableCommand.build(Todo.class).getQuery());
+            db.execSQL("CREATE TABLE BtDevices (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "name TEXT NOT NULL, address TEXT NOT NULL)");
+            db.execSQL("INSERT INTO Todo (userId, id, title, completed) VALUES (1, 1, 'Görev', 0)");
+            db.execSQL("INSERT INTO BtDevices (name, address) VALUES "
+                    + "('Kulaklık', 'AA'), ('Saat', 'BB'), ('Kulaklık (tekrar)', 'AA'), "
+                    + "('Hoparlör', 'CC'), ('Saat (tekrar)', 'BB'), ('Kulaklık (üçüncü)', 'AA')");
+            db.setVersion(5);
+        } finally {
+            db.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (dbContext != null) {
+            dbContext.close();
+        }
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void upgradeKeepsFirstDeviceForEachAddress() throws Exception {
+        dbContext = new DbContext(context);
+        BtDeviceRepository devices = new BtDeviceRepository(dbContext);
+
+        DbResult<ArrayList<BtDevice>> result = devices.selectAll(r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        List<BtDevice> rows = new ArrayList<>(result.getData());
+        Collections.sort(rows, Comparator.comparingInt(device -> device.id));
+        assertEquals(3, rows.size());
+        assertDevice(rows.get(0), 1, "Kulaklık", "AA");
+        assertDevice(rows.get(1), 2, "Saat", "BB");
+        assertDevice(rows.get(2), 4, "Hoparlör", "CC");
+
+        ArrayList<Todo> todos = new TodoRepository(dbContext).selectAll(r -> { }).getFuture().get().getData();
+        assertEquals(1, todos.size());
+        assertEquals("Görev", todos.get(0).title);
+    }
+
+    @Test
+    public void upgradedTableEnforcesUniqueAddress() throws Exception {
+        dbContext = new DbContext(context);
+        BtDeviceRepository devices = new BtDeviceRepository(dbContext);
+
+        BtDevice duplicate = new BtDevice();
+        duplicate.name = "Yeni";
+        duplicate.address = "AA";
+
+        assertTrue(devices.insert(duplicate, r -> { }).getFuture().get().isError());
+    }
+
+    private static void assertDevice(BtDevice device, int id, String name, String address) {
+        assertEquals(id, device.id);
+        assertEquals(name, device.name);
+        assertEquals(address, device.address);
+    }
+}
@@ -0,0 +1,161 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.model.BtDevice;
+import app.repositories.BtDeviceRepository;
+import lib.persistence.command.manipulation.DeleteSql;
+import lib.persistence.command.manipulation.UpdateSql;
+import lib.persistence.command.query.Select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * deleteByIds/updateByIds/deleteWhere/updateWhere/deleteById: SQLite parametre sınırını aşan ID
+ * listelerinin tek transaction içinde parçalanması, etkilenen satır sayıları ve koşulsuz komutların
+ * reddedilmesi.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class BulkWriteTest {
+
+    private static final int ROW_COUNT = 2100;
+
+    private TestDbContext dbContext;
+    private BtDeviceRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication());
+        repository = new BtDeviceRepository(dbContext);
+
+        List<BtDevice> devices = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            BtDevice device = new BtDevice();
+            device.name = "Cihaz " + i;
+            device.address = String.format("00:00:00:00:%02X:%02X", i / 256, i % 256);
+            devices.add(device);
+        }
+        assertTrue(repository.insertAll(devices, r -> { }).getFuture().get().isSuccess());
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void deleteByIdsAboveParameterLimitReturnsDeletedCount() throws Exception {
+        // Üç parçaya bölünür; olmayan ID'ler sayıya katılmaz.
+        List<Object> ids = ids(1, 2000);
+        ids.add(5000);
+        ids.add(5001);
+
+        DbResult<Integer> result = repository.deleteByIds(ids, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(2000, (int) result.getData());
+        assertEquals(ROW_COUNT - 2000, rowCount());
+    }
+
+    @Test
+    public void deleteByIdsChunksShareOneTransaction() throws Exception {
+        AtomicInteger deleted = new AtomicInteger();
+        DbResult<Void> result = dbContext.<Void>runInTransaction(transaction -> {
+            deleted.set(transaction.repository(repository).deleteByIds(ids(1, 2000)));
+            throw new IllegalStateException("geri al");
+        }, r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        assertEquals(2000, deleted.get());
+        // Parçalardan biri kendi başına commit edilseydi satırların bir kısmı silinmiş kalırdı.
+        assertEquals(ROW_COUNT, rowCount());
+    }
+
+    @Test
+    public void updateByIdsAboveParameterLimitReturnsUpdatedCount() throws Exception {
+        UpdateSql command = UpdateSql.build(BtDevice.class).set("name", "Toplu");
+
+        DbResult<Integer> result = repository.updateByIds(ids(1, 1500), command, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(1500, (int) result.getData());
+        assertEquals(1500, countByName("Toplu"));
+    }
+
+    @Test
+    public void updateByIdsAppliesCommandConditions() throws Exception {
+        UpdateSql command = UpdateSql.build(BtDevice.class).set("name", "Toplu").where().Equals("name", "Cihaz 1200");
+
+        DbResult<Integer> result = repository.updateByIds(ids(1, 1500), command, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, (int) result.getData());
+        assertEquals(1, countByName("Toplu"));
+    }
+
+    @Test
+    public void deleteWhereWithoutConditionIsRejected() throws Exception {
+        DbResult<Integer> result = repository.deleteWhere(DeleteSql.build(BtDevice.class), r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        assertEquals(ROW_COUNT, rowCount());
+
+        DbResult<Integer> filtered = repository.deleteWhere(DeleteSql.build(BtDevice.class).where().Equals("name", "Cihaz 7"),
+                r -> { }).getFuture().get();
+        assertEquals(1, (int) filtered.getData());
+    }
+
+    @Test
+    public void updateWhereWithoutConditionIsRejected() throws Exception {
+        DbResult<Integer> result = repository.updateWhere(UpdateSql.build(BtDevice.class).set("name", "Hepsi"),
+                r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        assertEquals(0, countByName("Hepsi"));
+    }
+
+    @Test
+    public void deleteByIdWithoutReadDeletesRow() throws Exception {
+        // Nesne önbellekte değilse okuma yapılmaz ve sonuç nesnesi null olur.
+        repository.getIdentityMap().clear();
+
+        DbResult<BtDevice> result = repository.deleteById(10, false, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertNull(result.getData());
+        assertEquals(ROW_COUNT - 1, rowCount());
+        assertTrue(repository.deleteById(10, false, r -> { }).getFuture().get().isError());
+    }
+
+    private int rowCount() throws Exception {
+        return repository.selectAll(r -> { }).getFuture().get().getData().size();
+    }
+
+    private int countByName(String name) throws Exception {
+        return repository.selectWith(Select.from(BtDevice.class).where().Equals("name", name), r -> { })
+                .getFuture().get().getData().size();
+    }
+
+    private static List<Object> ids(int from, int to) {
+        List<Object> ids = new ArrayList<>(to - from + 1);
+        for (int id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
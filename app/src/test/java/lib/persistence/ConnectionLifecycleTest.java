@@ -0,0 +1,120 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+import lib.persistence.command.query.Select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uzun ömürlü bağlantı: açma/yeniden kullanma/boşta kapatma sayaçları ve işlem sürerken
+ * çağrılan close()'un son işlem bitene kadar ertelenmesi.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class ConnectionLifecycleTest {
+
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    @Before
+    public void setUp() {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication());
+        repository = new TodoRepository(dbContext);
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void operationsReuseOpenConnection() throws Exception {
+        repository.insert(newTodo(1), r -> { }).getFuture().get();
+        repository.selectAll(r -> { }).getFuture().get();
+        repository.getById(1, r -> { }).getFuture().get();
+
+        assertEquals(1, dbContext.getOpenCount());
+        assertEquals(2, dbContext.getReuseCount());
+        assertEquals(0, dbContext.getIdleCloseCount());
+    }
+
+    @Test
+    public void idleConnectionIsClosedAndReopened() throws Exception {
+        dbContext.close();
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication(), TestDbContext.defaultOptions()
+                .idleTimeoutMs(50)
+                .build());
+        repository = new TodoRepository(dbContext);
+
+        repository.selectAll(r -> { }).getFuture().get();
+        assertEquals(1, dbContext.getOpenCount());
+        awaitTrue(() -> dbContext.getIdleCloseCount() == 1);
+
+        repository.selectAll(r -> { }).getFuture().get();
+        assertEquals(2, dbContext.getOpenCount());
+        assertEquals(0, dbContext.getReuseCount());
+    }
+
+    @Test
+    public void closeWaitsForRunningOperation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        DbTaskHandle<Integer> handle = dbContext.<Integer>runInTransaction(transaction -> {
+            TransactionRepository<Todo> todos = transaction.repository(repository);
+            todos.insert(newTodo(1));
+            started.countDown();
+            if (!release.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("close() çağrısı beklenirken zaman aşımı.");
+            }
+            // close() bu noktada çağrıldı; bağlantı ve derlenmiş ifadeler hâlâ kullanılabilir olmalı.
+            todos.insert(newTodo(2));
+            return todos.select(Select.from(Todo.class)).size();
+        }, r -> { });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        dbContext.close();
+        release.countDown();
+
+        DbResult<Integer> result = handle.getFuture().get();
+        assertTrue(result.isSuccess());
+        assertEquals(2, (int) result.getData());
+        assertEquals(1, dbContext.getOpenCount());
+
+        // Ertelenen kapatma işlem bitince yapıldı; sonraki işlem bağlantıyı yeniden açar.
+        repository.getById(3, r -> { }).getFuture().get();
+        assertEquals(2, dbContext.getOpenCount());
+    }
+
+    private static Todo newTodo(int id) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.userId = 1;
+        todo.title = "Görev " + id;
+        return todo;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Koşul zaman aşımına kadar sağlanmadı.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * DbTransaction.savepoint: geri alınan bir savepoint dıştaki transaction'ı bitirmemeli.
+ * "ROLLBACK TO" ifadesinin çerçeve tarafından nasıl sınıflandığı sürüme bağlı olduğu için
+ * hem API 28 öncesi hem sonrası çalıştırılır.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = {27, 34})
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DbTransactionTest {
+
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    @Before
+    public void setUp() {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication());
+        repository = new TodoRepository(dbContext);
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void rolledBackSavepointKeepsOuterTransaction() throws Exception {
+        AtomicReference<String> savepointError = new AtomicReference<>();
+        DbResult<Boolean> result = dbContext.<Boolean>runInTransaction(transaction -> {
+            TransactionRepository<Todo> todos = transaction.repository(repository);
+            todos.insert(newTodo(1));
+            try {
+                transaction.savepoint(inner -> {
+                    inner.repository(repository).insert(newTodo(2));
+                    throw new IllegalStateException("geri al");
+                });
+            } catch (IllegalStateException expected) {
+                savepointError.set(expected.getMessage());
+            }
+            // Dıştaki transaction hâlâ açık olmalı; bu yazma onunla birlikte commit edilir.
+            todos.insert(newTodo(3));
+            return transaction.getDatabase().inTransaction();
+        }, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals("geri al", savepointError.get());
+        assertTrue(result.getData());
+        assertEquals(ids(1, 3), idsOf(repository.selectAll(r -> { }).getFuture().get().getData()));
+    }
+
+    @Test
+    public void nestedSavepointRollbackKeepsEnclosingSavepoint() throws Exception {
+        DbResult<Void> result = dbContext.<Void>runInTransaction(transaction -> {
+            TransactionRepository<Todo> todos = transaction.repository(repository);
+            transaction.savepoint(outer -> {
+                todos.insert(newTodo(1));
+                try {
+                    outer.savepoint(inner -> {
+                        todos.insert(newTodo(2));
+                        throw new IllegalStateException("geri al");
+                    });
+                } catch (IllegalStateException expected) {
+                    // Sadece içteki savepoint geri alınır.
+                }
+                return null;
+            });
+            todos.insert(newTodo(3));
+            return null;
+        }, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(ids(1, 3), idsOf(repository.selectAll(r -> { }).getFuture().get().getData()));
+    }
+
+    private static Todo newTodo(int id) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.userId = 1;
+        todo.title = "Görev " + id;
+        return todo;
+    }
+
+    private static List<Integer> ids(int... values) {
+        List<Integer> ids = new ArrayList<>();
+        for (int value : values) {
+            ids.add(value);
+        }
+        return ids;
+    }
+
+    private static List<Integer> idsOf(List<Todo> todos) {
+        List<Integer> ids = new ArrayList<>();
+        for (Todo todo : todos) {
+            ids.add(todo.id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,143 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * getByIds/getByIdsAsMap: sonuçların istenen ID sırasında dönmesi, tekrar eden ve bulunamayan ID'ler,
+ * nesne önbelleğinden gelen kayıtlar ve SQLite parametre sınırını aşan ID listelerinin parçalanması.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class GetByIdsTest {
+
+    private static final int ROW_COUNT = 1500;
+
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication(), TestDbContext.defaultOptions()
+                .identityMapSize(ROW_COUNT)
+                .build());
+        repository = new TodoRepository(dbContext);
+
+        List<Todo> todos = new ArrayList<>(ROW_COUNT);
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            Todo todo = new Todo();
+            todo.id = i;
+            todo.userId = 1;
+            todo.title = "Görev " + i;
+            todos.add(todo);
+        }
+        assertTrue(repository.insertAll(todos, r -> { }).getFuture().get().isSuccess());
+        // Eklenen kayıtlar önbelleğe girer; testler okumayı SQLite'tan başlatır.
+        repository.getIdentityMap().clear();
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void resultsFollowRequestOrder() throws Exception {
+        assertEquals(Arrays.asList(5, 1, 3), idsOf(getByIds(5, 1, 3)));
+
+        Map<Object, Todo> map = repository.getByIdsAsMap(Arrays.asList(5, 1, 3), r -> { }).getFuture().get().getData();
+        assertEquals(Arrays.<Object>asList(5, 1, 3), new ArrayList<>(map.keySet()));
+        assertEquals(3, map.get(3).id);
+    }
+
+    @Test
+    public void duplicateIdsAreReadOnce() throws Exception {
+        ArrayList<Todo> items = getByIds(2, 7, 2);
+
+        // Liste her istenen ID için bir eleman taşır; aynı ID aynı nesneye karşılık gelir.
+        assertEquals(Arrays.asList(2, 7, 2), idsOf(items));
+        assertSame(items.get(0), items.get(2));
+        assertEquals(2, repository.getIdentityMap().getMissCount());
+
+        Map<Object, Todo> map = repository.getByIdsAsMap(Arrays.asList(2, 7, 2), r -> { }).getFuture().get().getData();
+        assertEquals(Arrays.<Object>asList(2, 7), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void missingIdsAreSkipped() throws Exception {
+        assertEquals(Arrays.asList(4, 6), idsOf(getByIds(9000, 4, 9001, 6)));
+
+        Map<Object, Todo> map = repository.getByIdsAsMap(Arrays.asList(9000, 4, 9001), r -> { }).getFuture().get().getData();
+        assertEquals(Arrays.<Object>asList(4), new ArrayList<>(map.keySet()));
+
+        assertTrue(getByIds(9000, 9001).isEmpty());
+    }
+
+    @Test
+    public void cachedRowsComeFromIdentityMap() throws Exception {
+        IdentityMap<Todo> identityMap = repository.getIdentityMap();
+        ArrayList<Todo> first = getByIds(1, 2, 3);
+        assertEquals(0, identityMap.getHitCount());
+        assertEquals(3, identityMap.getMissCount());
+
+        // 1 ve 3 önbellekten gelir, yalnızca 4 SQLite'tan okunur.
+        ArrayList<Todo> second = getByIds(3, 4, 1);
+
+        assertEquals(Arrays.asList(3, 4, 1), idsOf(second));
+        assertEquals(2, identityMap.getHitCount());
+        assertEquals(4, identityMap.getMissCount());
+        assertSame(first.get(2), second.get(0));
+        assertSame(first.get(0), second.get(2));
+    }
+
+    @Test
+    public void idsAboveParameterLimitAreChunked() throws Exception {
+        // Ters sıra: parçalar kendi içinde SQLite'ın döndürdüğü sırayla gelse de sonuç istek sırasında olmalı.
+        List<Object> ids = new ArrayList<>(ROW_COUNT + 1);
+        for (int id = ROW_COUNT; id >= 1; id--) {
+            ids.add(id);
+        }
+        ids.add(ROW_COUNT + 1);
+
+        ArrayList<Todo> items = repository.getByIds(ids, r -> { }).getFuture().get().getData();
+
+        assertEquals(ROW_COUNT, items.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(ROW_COUNT - i, items.get(i).id);
+        }
+        assertEquals(ROW_COUNT, repository.getIdentityMap().size());
+    }
+
+    private ArrayList<Todo> getByIds(Object... ids) throws Exception {
+        DbResult<ArrayList<Todo>> result = repository.getByIds(Arrays.asList(ids), r -> { }).getFuture().get();
+        assertTrue(result.isSuccess());
+        return result.getData();
+    }
+
+    private static List<Integer> idsOf(List<Todo> todos) {
+        List<Integer> ids = new ArrayList<>();
+        for (Todo todo : todos) {
+            ids.add(todo.id);
+        }
+        return ids;
+    }
+}
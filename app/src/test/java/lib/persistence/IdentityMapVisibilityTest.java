@@ -0,0 +1,98 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * WAL modunda okuyucu havuzu, runInTransaction içinde nesne önbelleğine yazılan fakat henüz
+ * commit edilmemiş kayıtları görmemeli; commit sonrası önbellek tekrar kullanılmalı.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class IdentityMapVisibilityTest {
+
+    private static final String DB_NAME = "identity-visibility.db";
+
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication(), DB_NAME, TestDbContext.defaultOptions()
+                .writeAheadLogging(true)
+                .build());
+        repository = new TodoRepository(dbContext);
+        assertTrue(repository.insert(newTodo(1, "eski"), r -> { }).getFuture().get().isSuccess());
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+        RuntimeEnvironment.getApplication().deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void readersDoNotSeeEntitiesCachedByOpenTransaction() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        DbTaskHandle<Void> handle = dbContext.<Void>runInTransaction(transaction -> {
+            TransactionRepository<Todo> todos = transaction.repository(repository);
+            todos.update(newTodo(1, "yeni"));
+            todos.insert(newTodo(2, "yeni"));
+            written.countDown();
+            if (!release.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Okuyucular beklenirken zaman aşımı.");
+            }
+            return null;
+        }, r -> { });
+
+        try {
+            assertTrue(written.await(5, TimeUnit.SECONDS));
+
+            DbResult<Todo> first = repository.getById(1, r -> { }).getFuture().get();
+            assertTrue(first.isSuccess());
+            assertEquals("eski", first.getData().title);
+            assertTrue(repository.getById(2, r -> { }).getFuture().get().isError());
+
+            Map<Object, Todo> byIds = repository.getByIdsAsMap(Arrays.asList(1, 2), r -> { }).getFuture().get().getData();
+            assertEquals("eski", byIds.get(1).title);
+            assertFalse(byIds.containsKey(2));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(handle.getFuture().get().isSuccess());
+
+        long hitsBefore = repository.getIdentityMap().getHitCount();
+        DbResult<Todo> committed = repository.getById(2, r -> { }).getFuture().get();
+        assertEquals("yeni", committed.getData().title);
+        assertEquals(hitsBefore + 1, repository.getIdentityMap().getHitCount());
+    }
+
+    private static Todo newTodo(int id, String title) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.userId = 1;
+        todo.title = title;
+        return todo;
+    }
+}
@@ -0,0 +1,127 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import app.model.BtDevice;
+import app.repositories.BtDeviceRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * insertAll: parça sınırlarını aşan eklemelerde ID'lerin nesnelere atanması, yarıda kalan
+ * eklemede önceki parçaların kalıcı olması ve dıştaki transaction'a katılması.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class InsertAllTest {
+
+    private static final int CHUNK_SIZE = 10;
+
+    private TestDbContext dbContext;
+    private BtDeviceRepository repository;
+
+    @Before
+    public void setUp() {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication(), TestDbContext.defaultOptions()
+                .bulkInsertChunkSize(CHUNK_SIZE)
+                .build());
+        repository = new BtDeviceRepository(dbContext);
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void assignsIdsAcrossChunks() throws Exception {
+        List<BtDevice> devices = devices(25);
+
+        DbResult<ArrayList<BtDevice>> result = repository.insertAll(devices, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(25, result.getData().size());
+        for (int i = 0; i < devices.size(); i++) {
+            assertEquals(i + 1, devices.get(i).id);
+        }
+        assertEquals(25, rowCount());
+    }
+
+    @Test
+    public void failedChunkKeepsEarlierChunks() throws Exception {
+        List<BtDevice> devices = devices(25);
+        // İkinci parçadaki kayıt UNIQUE adres kısıtını ihlal eder.
+        devices.get(14).address = devices.get(2).address;
+
+        DbResult<ArrayList<BtDevice>> result = repository.insertAll(devices, r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        String message = ((DbResult.Error<ArrayList<BtDevice>>) result).getErrorMessage();
+        assertTrue(message, message.endsWith("Kaydedilen kayıt sayısı: " + CHUNK_SIZE));
+        assertEquals(CHUNK_SIZE, rowCount());
+    }
+
+    @Test
+    public void joinsOuterTransaction() throws Exception {
+        AtomicInteger insertedCount = new AtomicInteger();
+        DbResult<Void> result = dbContext.<Void>runInTransaction(transaction -> {
+            insertedCount.set(transaction.repository(repository).insertAll(devices(25)).size());
+            throw new IllegalStateException("geri al");
+        }, r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        assertEquals(25, insertedCount.get());
+        // Parçalar kendi transaction'ını açıp commit etseydi geri alma onları silmezdi.
+        assertEquals(0, rowCount());
+    }
+
+    @Test
+    public void failedChunkInsideOuterTransactionFailsWork() throws Exception {
+        List<BtDevice> devices = devices(25);
+        devices.get(14).address = devices.get(2).address;
+
+        AtomicBoolean insertFailed = new AtomicBoolean();
+        DbResult<Void> result = dbContext.<Void>runInTransaction(transaction -> {
+            try {
+                transaction.repository(repository).insertAll(devices);
+            } catch (Exception expected) {
+                insertFailed.set(true);
+            }
+            throw new IllegalStateException("geri al");
+        }, r -> { }).getFuture().get();
+
+        assertTrue(result.isError());
+        assertTrue(insertFailed.get());
+        // İlk parça da dıştaki transaction ile birlikte geri alınır.
+        assertEquals(0, rowCount());
+    }
+
+    private int rowCount() throws Exception {
+        return repository.selectAll(r -> { }).getFuture().get().getData().size();
+    }
+
+    private static List<BtDevice> devices(int count) {
+        List<BtDevice> devices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BtDevice device = new BtDevice();
+            device.name = "Cihaz " + i;
+            device.address = String.format("00:00:00:00:%02X:%02X", i / 256, i % 256);
+            devices.add(device);
+        }
+        return devices;
+    }
+}
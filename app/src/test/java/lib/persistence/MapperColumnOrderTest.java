@@ -0,0 +1,105 @@
+package lib.persistence;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import lib.persistence.command.definition.CreateTableCommand;
+import lib.persistence.profile.EntityMapper;
+import lib.persistence.profile.Mapper;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Aynı ordinal'ı paylaşan sütunlarda üretilen eşleyicinin (SameOrdinalItem_Mapper) sütun ve
+ * parametre sırası, InsertCommand/UpdateCommand'ın kullandığı Mapper.classToDbColumns sırasıyla aynı olmalı.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class MapperColumnOrderTest {
+
+    private TestDbContext dbContext;
+    private GenericRepository<SameOrdinalItem> repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication());
+        repository = new GenericRepository<SameOrdinalItem>(dbContext, SameOrdinalItem.class) { };
+        dbContext.<Void>runInTransaction(transaction -> {
+            transaction.getDatabase().execSQL(CreateTableCommand.build(SameOrdinalItem.class).getQuery());
+            return null;
+        }, r -> { }).getFuture().get();
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void generatedColumnOrderMatchesReflection() {
+        EntityMapper<SameOrdinalItem> generated = Mapper.getEntityMapper(SameOrdinalItem.class);
+        assertNotNull("SameOrdinalItem_Mapper üretilmemiş.", generated);
+
+        String[] reflectedColumns = Mapper.getColumnNames(SameOrdinalItem.class);
+        int[] indexes = generated.resolveColumns(new MatrixCursor(reflectedColumns));
+        assertEquals(reflectedColumns.length, indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            assertEquals(reflectedColumns[i], i, indexes[i]);
+        }
+    }
+
+    @Test
+    public void generatedBindingWritesEachValueToItsColumn() throws Exception {
+        SameOrdinalItem item = newItem("a1", "b1", "m1", "z1", 1);
+        assertTrue(repository.insert(item, r -> { }).getFuture().get().isSuccess());
+        assertStoredRow(item);
+
+        SameOrdinalItem changed = newItem("a2", "b2", "m2", "z2", 2);
+        changed.id = item.id;
+        assertTrue(repository.update(changed, r -> { }).getFuture().get().isSuccess());
+        assertStoredRow(changed);
+    }
+
+    // Satırı nesne eşleyicisi yerine sütun adlarıyla okur; değerlerin yer değiştirmesi böylece görünür.
+    private void assertStoredRow(SameOrdinalItem expected) throws Exception {
+        DbResult<String[]> row = dbContext.<String[]>runInTransaction(transaction -> {
+            try (Cursor cursor = transaction.getDatabase().rawQuery(
+                    "SELECT alpha, beta, mid, zeta, count FROM SameOrdinalItems WHERE id = ?",
+                    new String[]{String.valueOf(expected.id)})) {
+                if (!cursor.moveToFirst()) return null;
+                String[] values = new String[cursor.getColumnCount()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = cursor.getString(i);
+                }
+                return values;
+            }
+        }, r -> { }).getFuture().get();
+
+        assertNotNull(row.getData());
+        assertArrayEquals(new String[]{expected.alpha, expected.beta, expected.mid, expected.zeta,
+                String.valueOf(expected.count)}, row.getData());
+    }
+
+    private static SameOrdinalItem newItem(String alpha, String beta, String mid, String zeta, int count) {
+        SameOrdinalItem item = new SameOrdinalItem();
+        item.alpha = alpha;
+        item.beta = beta;
+        item.mid = mid;
+        item.zeta = zeta;
+        item.count = count;
+        return item;
+    }
+}
@@ -0,0 +1,54 @@
+package lib.persistence;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import app.model.Todo;
+import lib.persistence.command.query.Select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * QueryCache.keyOf: parametreler tipleriyle bağlandığı için anahtar, değerin metin haline ek olarak
+ * bağlama türünü de içermeli; aynı şekilde bağlanan değerler aynı anahtarı üretmeli.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class QueryCacheKeyTest {
+
+    @Test
+    public void integerAndTextArgumentsGetDifferentKeys() {
+        assertNotEquals(key(1), key("1"));
+        assertNotEquals(key(1.0), key("1.0"));
+        assertNotEquals(key(1), key(1.0));
+    }
+
+    @Test
+    public void nullAndNullTextGetDifferentKeys() {
+        assertNotEquals(key(null), key("null"));
+    }
+
+    @Test
+    public void valuesBoundTheSameWayShareKey() {
+        assertEquals(key(1), key(1L));
+        assertEquals(key(1), key(true));
+        assertEquals(key(1.5), key(1.5f));
+        assertEquals(key(new byte[]{1, 2}), key(new byte[]{1, 2}));
+    }
+
+    @Test
+    public void separatorInsideTextDoesNotShiftArguments() {
+        String first = QueryCache.keyOf(Todo.class, Select.from(Todo.class).where()
+                .Equals("title", "a\u0000Tb").Equals("userId", "c").compile());
+        String second = QueryCache.keyOf(Todo.class, Select.from(Todo.class).where()
+                .Equals("title", "a").Equals("userId", "b\u0000Tc").compile());
+        assertNotEquals(first, second);
+    }
+
+    private static String key(Object value) {
+        return QueryCache.keyOf(Todo.class, Select.from(Todo.class).where().Equals("title", value).compile());
+    }
+}
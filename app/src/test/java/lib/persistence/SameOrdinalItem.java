@@ -0,0 +1,24 @@
+package lib.persistence;
+
+import lib.persistence.annotations.DbColumnAnnotation;
+import lib.persistence.annotations.DbTableAnnotation;
+
+/**
+ * Sütunları aynı ordinal'ı paylaşan test modeli. Alanlar bilerek alfabetik olmayan sırada
+ * bildirilmiştir; üretilen eşleyici ile yansıma yolu aynı sütun sırasını kullanmalıdır.
+ */
+@DbTableAnnotation(name = "SameOrdinalItems")
+public class SameOrdinalItem {
+    @DbColumnAnnotation(ordinal = 1, isPrimaryKey = true, isIdentity = true)
+    public int id;
+    @DbColumnAnnotation(ordinal = 2)
+    public String zeta;
+    @DbColumnAnnotation(ordinal = 2)
+    public String alpha;
+    @DbColumnAnnotation(ordinal = 2)
+    public String mid;
+    @DbColumnAnnotation
+    public int count;
+    @DbColumnAnnotation
+    public String beta;
+}
@@ -0,0 +1,150 @@
+package lib.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+import lib.persistence.command.query.Select;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * selectStream/selectChunked: tüketicinin taramayı erken bitirmesi, tarama sırasında iptal ve
+ * yavaş teslim executor'ında streamMaxInFlightChunks ile sınırlanan geri basınç.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class SelectStreamTest {
+
+    private static final int ROW_COUNT = 60;
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication(), TestDbContext.defaultOptions()
+                .streamMaxInFlightChunks(MAX_IN_FLIGHT)
+                .build());
+        repository = new TodoRepository(dbContext);
+
+        List<Todo> todos = new ArrayList<>(ROW_COUNT);
+        for (int i = 1; i <= ROW_COUNT; i++) {
+            Todo todo = new Todo();
+            todo.id = i;
+            todo.userId = 1;
+            todo.title = "Görev " + i;
+            todos.add(todo);
+        }
+        assertTrue(repository.insertAll(todos, r -> { }).getFuture().get().isSuccess());
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void consumerCanStopStreamEarly() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        CompletableFuture<DbResult<Integer>> done = new CompletableFuture<>();
+
+        repository.selectStream(Select.from(Todo.class).orderBy("id"), todo -> {
+            ids.add(todo.id);
+            return ids.size() < 10;
+        }, done::complete);
+
+        DbResult<Integer> result = done.get(5, TimeUnit.SECONDS);
+        assertTrue(result.isSuccess());
+        assertEquals(10, (int) result.getData());
+        assertEquals(10, ids.size());
+        assertEquals(10, (int) ids.get(9));
+    }
+
+    @Test
+    public void cancelStopsStreamMidScan() throws Exception {
+        AtomicReference<DbTaskHandle<Integer>> handle = new AtomicReference<>();
+        AtomicInteger seen = new AtomicInteger();
+        CompletableFuture<DbResult<Integer>> done = new CompletableFuture<>();
+
+        // Tüketici ilk satırda tutamacı bekler; iptal tarama sürerken gelir.
+        CompletableFuture<Void> handleReady = new CompletableFuture<>();
+        handle.set(repository.selectStream(Select.from(Todo.class).orderBy("id"), todo -> {
+            handleReady.get(5, TimeUnit.SECONDS);
+            if (seen.incrementAndGet() == 5) {
+                handle.get().cancel();
+            }
+            return true;
+        }, done::complete));
+        handleReady.complete(null);
+
+        DbResult<Integer> result = done.get(5, TimeUnit.SECONDS);
+        assertTrue(result.isError());
+        assertTrue(((DbResult.Error<Integer>) result).getException() instanceof CancellationException);
+        assertEquals(5, seen.get());
+        // Çalışırken iptal edilen işlem de tutamacın future'ını iptal sonucuyla tamamlar.
+        assertTrue(handle.get().isCancelled());
+        assertTrue(handle.get().getFuture().get(5, TimeUnit.SECONDS).isError());
+    }
+
+    @Test
+    public void slowDeliveryLimitsChunksInFlight() throws Exception {
+        ExecutorService slowExecutor = Executors.newSingleThreadExecutor();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        // Parça executor'a verildiğinde sayılır, tüketici bitirince düşülür.
+        Executor delivery = task -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            slowExecutor.execute(task);
+        };
+        List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<DbResult<Integer>> done = new CompletableFuture<>();
+
+        try {
+            repository.selectChunked(Select.from(Todo.class).orderBy("id"), 5, delivery, chunk -> {
+                Thread.sleep(20);
+                for (Todo todo : chunk) {
+                    ids.add(todo.id);
+                }
+                // Semafor bu dönüşten sonra bırakılır; sayaç ondan önce düşmeli.
+                inFlight.decrementAndGet();
+                return true;
+            }, done::complete);
+
+            DbResult<Integer> result = done.get(10, TimeUnit.SECONDS);
+            assertTrue(result.isSuccess());
+            assertEquals(ROW_COUNT, (int) result.getData());
+        } finally {
+            slowExecutor.shutdownNow();
+        }
+
+        // Okuyucu tüketiciyi beklemeden ilerleseydi sınır aşılırdı; hiç dolmasaydı geri basınç denenmemiş olurdu.
+        assertEquals(MAX_IN_FLIGHT, maxInFlight.get());
+        assertEquals(ROW_COUNT, ids.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(i + 1, (int) ids.get(i));
+        }
+    }
+}
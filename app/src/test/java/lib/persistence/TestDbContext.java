@@ -0,0 +1,51 @@
+package lib.persistence;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.annotation.Nullable;
+
+import app.model.BtDevice;
+import app.model.Todo;
+import lib.persistence.command.definition.CreateTableCommand;
+
+/**
+ * Testler ve benchmark'lar için ortak veritabanı; Todo ve BtDevice tablolarını oluşturur.
+ * İsim verilmezse veritabanı bellek içidir ve bağlantı kapandığında içeriği kaybolur; bu yüzden
+ * varsayılan seçeneklerde bağlantı boşta kapatılmaz. WAL okuyucuları ayrı bağlantı açtığı için
+ * WAL testleri dosya adı vermelidir.
+ */
+public class TestDbContext extends ADbContext {
+
+    public TestDbContext(Context context) {
+        this(context, defaultOptions().build());
+    }
+
+    public TestDbContext(Context context, DbOptions options) {
+        this(context, null, options);
+    }
+
+    public TestDbContext(Context context, @Nullable String name, DbOptions options) {
+        super(context, name, null, 1, options);
+    }
+
+    /** Bağlantıyı boşta kapatmayan seçenekler; testler üzerine kendi ayarlarını ekleyebilir. */
+    public static DbOptions.Builder defaultOptions() {
+        return new DbOptions.Builder().idleTimeoutMs(0);
+    }
+
+    @Override
+    protected Class<?>[] getEntityTypes() {
+        return new Class<?>[]{Todo.class, BtDevice.class};
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL(CreateTableCommand.build(Todo.class).getQuery());
+        db.execSQL(CreateTableCommand.build(BtDevice.class).getQuery());
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+    }
+}
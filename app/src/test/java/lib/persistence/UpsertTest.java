@@ -0,0 +1,189 @@
+package lib.persistence;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import app.model.BtDevice;
+import app.model.Todo;
+import app.repositories.BtDeviceRepository;
+import app.repositories.TodoRepository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * upsert/upsertAll/replaceSet: hem INSERT ... ON CONFLICT DO UPDATE yolu hem de eski SQLite
+ * sürümleri için UPDATE + INSERT yolu. Robolectric'in yerel SQLite'ı SDK seviyesinden bağımsız
+ * olduğu için yol, supportsUpsert ezilerek seçilir.
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = {27, 34})
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class UpsertTest {
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "onConflict={0}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{{true}, {false}});
+    }
+
+    private final boolean onConflict;
+    private TestDbContext dbContext;
+    private BtDeviceRepository devices;
+    private TodoRepository todos;
+
+    public UpsertTest(boolean onConflict) {
+        this.onConflict = onConflict;
+    }
+
+    @Before
+    public void setUp() {
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication()) {
+            @Override
+            boolean supportsUpsert(SQLiteDatabase db) {
+                return onConflict;
+            }
+        };
+        devices = new BtDeviceRepository(dbContext);
+        todos = new TodoRepository(dbContext);
+    }
+
+    @After
+    public void tearDown() {
+        dbContext.close();
+    }
+
+    @Test
+    public void upsertReadsBackIdentityByConflictKey() throws Exception {
+        BtDevice first = device("Eski", 1);
+        assertTrue(devices.upsert(first, r -> { }).getFuture().get().isSuccess());
+        assertEquals(1, first.id);
+
+        // ID'si bilinmeyen nesne aynı adresle gelir; satır güncellenir ve mevcut ID nesneye atanır.
+        BtDevice incoming = device("Yeni", 1);
+        DbResult<BtDevice> result = devices.upsert(incoming, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, incoming.id);
+        List<BtDevice> rows = allDevices();
+        assertEquals(1, rows.size());
+        assertEquals("Yeni", rows.get(0).name);
+    }
+
+    @Test
+    public void upsertUpdatesByNonIdentityPrimaryKey() throws Exception {
+        assertTrue(todos.upsert(todo(1, "Eski"), r -> { }).getFuture().get().isSuccess());
+        assertTrue(todos.upsert(todo(1, "Yeni"), r -> { }).getFuture().get().isSuccess());
+
+        ArrayList<Todo> rows = todos.selectAll(r -> { }).getFuture().get().getData();
+        assertEquals(1, rows.size());
+        assertEquals("Yeni", rows.get(0).title);
+    }
+
+    @Test
+    public void upsertAllMixesInsertsAndUpdates() throws Exception {
+        assertTrue(devices.insertAll(Arrays.asList(device("A", 1), device("B", 2)), r -> { }).getFuture().get().isSuccess());
+
+        List<BtDevice> incoming = Arrays.asList(device("B2", 2), device("C", 3), device("A2", 1));
+        assertTrue(devices.upsertAll(incoming, r -> { }).getFuture().get().isSuccess());
+
+        assertEquals(2, incoming.get(0).id);
+        assertEquals(3, incoming.get(1).id);
+        assertEquals(1, incoming.get(2).id);
+        Map<Integer, String> names = namesById();
+        assertEquals(3, names.size());
+        assertEquals("A2", names.get(1));
+        assertEquals("B2", names.get(2));
+        assertEquals("C", names.get(3));
+    }
+
+    @Test
+    public void replaceSetDeletesRowsMissingFromSet() throws Exception {
+        assertTrue(devices.insertAll(devices(5), r -> { }).getFuture().get().isSuccess());
+
+        List<BtDevice> incoming = Arrays.asList(device("Yeni 1", 1), device("Yeni 3", 3), device("Cihaz 9", 9));
+        DbResult<ArrayList<BtDevice>> result = devices.replaceSet(incoming, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        Map<Integer, String> names = namesById();
+        assertEquals(3, names.size());
+        assertEquals("Yeni 1", names.get(incoming.get(0).id));
+        assertEquals("Yeni 3", names.get(incoming.get(1).id));
+        assertEquals("Cihaz 9", names.get(incoming.get(2).id));
+        // Değişmeyen satırların ID'leri korunur.
+        assertEquals(2, incoming.get(0).id);
+        assertEquals(4, incoming.get(1).id);
+    }
+
+    @Test
+    public void replaceSetAboveParameterLimitUsesTempTable() throws Exception {
+        assertTrue(devices.insertAll(devices(1100), r -> { }).getFuture().get().isSuccess());
+
+        // 999'dan fazla anahtar NOT IN listesine sığmaz; silme geçici tablo üzerinden yapılır.
+        List<BtDevice> kept = devices(1050);
+        DbResult<ArrayList<BtDevice>> result = devices.replaceSet(kept, r -> { }).getFuture().get();
+
+        assertTrue(result.isSuccess());
+        Map<Integer, String> names = namesById();
+        assertEquals(1050, names.size());
+        for (BtDevice device : kept) {
+            assertEquals(device.name, names.get(device.id));
+        }
+        assertFalse(names.containsKey(1051));
+
+        // Geçici tablo işlem sonunda kaldırılır; ikinci çağrı aynı bağlantıda tekrar oluşturabilmeli.
+        assertTrue(devices.replaceSet(devices(1000), r -> { }).getFuture().get().isSuccess());
+        assertEquals(1000, namesById().size());
+    }
+
+    private List<BtDevice> allDevices() throws Exception {
+        return devices.selectAll(r -> { }).getFuture().get().getData();
+    }
+
+    private Map<Integer, String> namesById() throws Exception {
+        Map<Integer, String> names = new HashMap<>();
+        for (BtDevice device : allDevices()) {
+            names.put(device.id, device.name);
+        }
+        return names;
+    }
+
+    // i. cihaz; adres (çakışma anahtarı) sadece i'ye bağlıdır.
+    private static BtDevice device(String name, int i) {
+        BtDevice device = new BtDevice();
+        device.name = name;
+        device.address = String.format("00:00:00:00:%02X:%02X", i / 256, i % 256);
+        return device;
+    }
+
+    private static List<BtDevice> devices(int count) {
+        List<BtDevice> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(device("Cihaz " + i, i));
+        }
+        return list;
+    }
+
+    private static Todo todo(int id, String title) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.userId = 1;
+        todo.title = title;
+        return todo;
+    }
+}
@@ -0,0 +1,125 @@
+package lib.persistence.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benzeri basit ölçüm yardımcısı: ısınma turlarından sonra işlemi ölçüm süresi boyunca
+ * tekrarlar, saniyedeki işlem sayısını ve işlem başına ayrılan bellek miktarını raporlar.
+ *
+ * Bellek ölçümü HotSpot'un thread başına ayrılan byte sayacını kullanır
+ * (com.sun.management.ThreadMXBean). Veritabanı thread'inde çalışan uçtan uca işlemler için
+ * tüm thread'lerin sayaçları toplanır; bu değer arka plan thread'lerinin ayırdığı belleği de
+ * içerebileceği için yaklaşık kabul edilmelidir.
+ */
+final class Benchmark {
+
+    /** Ölçülen işlem. */
+    interface Operation {
+        void run() throws Exception;
+    }
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final long warmupNanos;
+    private final long measureNanos;
+
+    Benchmark(long warmupMs, long measureMs) {
+        this.warmupNanos = TimeUnit.MILLISECONDS.toNanos(warmupMs);
+        this.measureNanos = TimeUnit.MILLISECONDS.toNanos(measureMs);
+    }
+
+    /** İşlemi bu thread'de ölçer; bellek sadece bu thread için sayılır. */
+    Result measure(String name, Operation operation) throws Exception {
+        return measure(name, operation, false);
+    }
+
+    /** İşlemi ölçer; allThreads true ise bellek tüm thread'ler için sayılır (ör. veritabanı thread'i). */
+    Result measure(String name, Operation operation, boolean allThreads) throws Exception {
+        runFor(operation, warmupNanos);
+
+        long allocatedBefore = allocatedBytes(allThreads);
+        long start = System.nanoTime();
+        long count = runFor(operation, measureNanos);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes(allThreads) - allocatedBefore;
+
+        Result result = new Result(name, count, elapsed, allocated);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Tek seferlik, kendi içinde birden çok satır işleyen bir işlemi (ör. 10k satırlık insertAll)
+     * ölçer. Sonuç satır başına raporlanır.
+     */
+    Result measureOnce(String name, int rows, Operation operation, boolean allThreads) throws Exception {
+        long allocatedBefore = allocatedBytes(allThreads);
+        long start = System.nanoTime();
+        operation.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes(allThreads) - allocatedBefore;
+
+        Result result = new Result(name, rows, elapsed, allocated);
+        System.out.println(result);
+        return result;
+    }
+
+    private static long runFor(Operation operation, long durationNanos) throws Exception {
+        long count = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        // Saat okuma maliyeti ölçüme karışmasın diye süre 64 işlemde bir kontrol edilir.
+        do {
+            for (int i = 0; i < 64; i++) {
+                operation.run();
+            }
+            count += 64;
+        } while (System.nanoTime() < deadline);
+        return count;
+    }
+
+    private static long allocatedBytes(boolean allThreads) {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allThreads) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        long total = 0;
+        for (long allocated : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (allocated > 0) total += allocated;
+        }
+        return total;
+    }
+
+    static final class Result {
+        final String name;
+        final long operations;
+        final long elapsedNanos;
+        final long allocatedBytes;
+
+        Result(String name, long operations, long elapsedNanos, long allocatedBytes) {
+            this.name = name;
+            this.operations = operations;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double opsPerSecond() {
+            return operations * 1e9 / elapsedNanos;
+        }
+
+        double bytesPerOp() {
+            return operations == 0 ? 0 : (double) allocatedBytes / operations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-44s %14.1f ops/s %12.1f B/op %10d ops",
+                    name, opsPerSecond(), bytesPerOp(), operations);
+        }
+    }
+}
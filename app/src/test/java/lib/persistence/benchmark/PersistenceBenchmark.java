@@ -0,0 +1,166 @@
+package lib.persistence.benchmark;
+
+import android.content.ContentValues;
+import android.database.MatrixCursor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.model.Todo;
+import app.repositories.TodoRepository;
+import lib.persistence.DbResult;
+import lib.persistence.TestDbContext;
+import lib.persistence.command.manipulation.InsertCommand;
+import lib.persistence.command.query.CompiledQuery;
+import lib.persistence.command.query.Select;
+import lib.persistence.profile.Mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Kalıcılık katmanının sık kullanılan yolları için JVM benchmark'ları.
+ *
+ * Normal test çalıştırmasında atlanır. Çalıştırmak için:
+ * <pre>
+ * ./gradlew :app:testDebugUnitTest --tests "lib.persistence.benchmark.*" -Ppersistence.benchmark=true
+ * </pre>
+ * En büyük satır sayısı -Ppersistence.benchmark.maxRows ile sınırlandırılabilir (varsayılan 100000).
+ * Sonuçlar standart çıktıya "ops/s" ve "B/op" olarak yazılır. Robolectric'in yerel SQLite'ı
+ * kullanılır; mutlak değerler cihazdakinden farklıdır, değişiklikler arası karşılaştırma içindir.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class PersistenceBenchmark {
+
+    private static final int[] ROW_COUNTS = {1_000, 10_000, 100_000};
+
+    private final Benchmark benchmark = new Benchmark(500, 2_000);
+    private TestDbContext dbContext;
+    private TodoRepository repository;
+
+    // JIT'in ölçülen kodu ölü kod olarak atmaması için sonuçlar burada toplanır.
+    private int sink;
+
+    @Before
+    public void setUp() {
+        assumeTrue("Benchmark'lar -Ppersistence.benchmark=true ile çalışır.", Boolean.getBoolean("persistence.benchmark"));
+        dbContext = new TestDbContext(RuntimeEnvironment.getApplication());
+        repository = new TodoRepository(dbContext);
+    }
+
+    @After
+    public void tearDown() {
+        if (dbContext != null) {
+            dbContext.close();
+        }
+    }
+
+    @Test
+    public void selectGetQuery() throws Exception {
+        benchmark.measure("Select.getQuery", () -> {
+            Select<Todo> select = Select.from(Todo.class)
+                    .where()
+                    .Equals("userId", 7)
+                    .And()
+                    .Like("title", "a%")
+                    .orderBy("id")
+                    .limit(50);
+            sink += select.getQuery().length();
+        });
+    }
+
+    @Test
+    public void compiledQueryWithArgs() throws Exception {
+        CompiledQuery<Todo> compiled = Select.from(Todo.class)
+                .where()
+                .Equals("userId", 0)
+                .And()
+                .Like("title", "")
+                .orderBy("id")
+                .limit(50)
+                .compile();
+        int[] userId = {0};
+        benchmark.measure("CompiledQuery.withArgs", () -> {
+            CompiledQuery<Todo> query = compiled.withArgs(userId[0]++, "a%");
+            sink += query.getQuery().length() + query.getArgCount();
+        });
+    }
+
+    @Test
+    public void mapperCursorToObject() throws Exception {
+        MatrixCursor cursor = new MatrixCursor(Mapper.getColumnNames(Todo.class));
+        cursor.addRow(new Object[]{1, 7, "başlık", 1});
+        cursor.moveToFirst();
+        benchmark.measure("Mapper.cursorToObject", () -> sink += Mapper.cursorToObject(cursor, Todo.class).userId);
+    }
+
+    @Test
+    public void mapperObjectToContentValues() throws Exception {
+        Todo todo = newTodo(1);
+        benchmark.measure("Mapper.objectToContentValues", () -> {
+            ContentValues values = Mapper.objectToContentValues(todo);
+            sink += values.size();
+        });
+    }
+
+    @Test
+    public void insertCommandBuild() throws Exception {
+        Todo todo = newTodo(1);
+        benchmark.measure("InsertCommand.build", () -> sink += InsertCommand.build(todo).getTableName().length());
+    }
+
+    @Test
+    public void repositoryInsert() throws Exception {
+        int[] nextId = {1};
+        benchmark.measure("GenericRepository.insert", () -> {
+            DbResult<Todo> result = repository.insert(newTodo(nextId[0]++), r -> { }).getFuture().get();
+            assertTrue(result.isSuccess());
+        }, true);
+    }
+
+    @Test
+    public void repositoryInsertAllAndSelectAll() throws Exception {
+        int maxRows = Integer.getInteger("persistence.benchmark.maxRows", 100_000);
+        for (int rows : ROW_COUNTS) {
+            if (rows > maxRows) break;
+            assertTrue(repository.deleteAll(r -> { }).getFuture().get().isSuccess());
+            List<Todo> items = new ArrayList<>(rows);
+            for (int i = 1; i <= rows; i++) {
+                items.add(newTodo(i));
+            }
+
+            benchmark.measureOnce("GenericRepository.insertAll " + rows + " (satır)", rows, () -> {
+                DbResult<ArrayList<Todo>> result = repository.insertAll(items, r -> { }).getFuture().get();
+                assertTrue(result.isSuccess());
+            }, true);
+
+            // İlk tur ısınmadır; ikinci tur raporlanır.
+            repository.selectAll(r -> { }).getFuture().get();
+            benchmark.measureOnce("GenericRepository.selectAll " + rows + " (satır)", rows, () -> {
+                DbResult<ArrayList<Todo>> result = repository.selectAll(r -> { }).getFuture().get();
+                assertEquals(rows, result.getData().size());
+            }, true);
+        }
+    }
+
+    private static Todo newTodo(int id) {
+        Todo todo = new Todo();
+        todo.id = id;
+        todo.userId = id % 50;
+        todo.title = "Görev " + id;
+        todo.completed = (id & 1) == 0;
+        return todo;
+    }
+}
@@ -0,0 +1,394 @@
+package lib.persistence.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * {@code @DbTableAnnotation} ile işaretlenmiş her model için derleme zamanında
+ * {@code <Model>_Mapper} sınıfını üretir. Üretilen sınıf lib.persistence.profile.EntityMapper
+ * arayüzünü uygular; alanlara doğrudan erişir ve Cursor'dan ilkel tiplerle okur.
+ *
+ * Üretilemeyen modeller (private/final alan, erişilemeyen yapıcı, desteklenmeyen tip)
+ * için sadece NOTE verilir; Mapper bu durumda yansımaya (reflection) geri döner.
+ */
+@SupportedAnnotationTypes(EntityMapperProcessor.TABLE_ANNOTATION)
+public class EntityMapperProcessor extends AbstractProcessor {
+
+    static final String TABLE_ANNOTATION = "lib.persistence.annotations.DbTableAnnotation";
+    static final String COLUMN_ANNOTATION = "lib.persistence.annotations.DbColumnAnnotation";
+    static final String MAPPER_SUFFIX = "_Mapper";
+
+    private enum Kind { INT, LONG, FLOAT, DOUBLE, BOOLEAN, STRING, BYTES, LOCAL_DATE_TIME, LOCAL_DATE }
+
+    private static final class Column {
+        String fieldName;
+        String columnName;
+        int ordinal;
+        boolean isPrimaryKey;
+        boolean isIdentity;
+        Kind kind;
+        boolean primitive;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement tableAnnotation = processingEnv.getElementUtils().getTypeElement(TABLE_ANNOTATION);
+        if (tableAnnotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(tableAnnotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            String reason = checkType(type);
+            List<Column> columns = reason == null ? collectColumns(type) : null;
+            if (reason == null && columns == null) {
+                reason = "erişilemeyen veya desteklenmeyen bir sütun alanı var";
+            }
+            if (reason == null && columns.isEmpty()) {
+                reason = "@DbColumnAnnotation ile işaretlenmiş alan yok";
+            }
+            if (reason != null) {
+                note(type, type.getSimpleName() + " için mapper üretilmedi (" + reason + "); yansıma kullanılacak.");
+                continue;
+            }
+            try {
+                writeMapper(type, columns);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Mapper yazılamadı: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    // --- MODEL DOĞRULAMA ---
+
+    private String checkType(TypeElement type) {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            return "iç sınıflar desteklenmiyor";
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "soyut sınıf";
+        }
+        boolean hasDefaultConstructor = false;
+        boolean hasAnyConstructor = false;
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.CONSTRUCTOR) {
+                hasAnyConstructor = true;
+                ExecutableElement constructor = (ExecutableElement) member;
+                if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                    hasDefaultConstructor = true;
+                }
+            }
+        }
+        if (hasAnyConstructor && !hasDefaultConstructor) {
+            return "erişilebilir parametresiz yapıcı yok";
+        }
+        return null;
+    }
+
+    /** Alanları üst sınıflarla birlikte tarar; erişilemeyen bir alan varsa null döner. */
+    private List<Column> collectColumns(TypeElement type) {
+        String packageName = packageOf(type);
+        List<Column> columns = new ArrayList<>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.FIELD) {
+                    continue;
+                }
+                AnnotationMirror annotation = findAnnotation(member, COLUMN_ANNOTATION);
+                if (annotation == null) {
+                    continue;
+                }
+                VariableElement field = (VariableElement) member;
+                Set<Modifier> modifiers = field.getModifiers();
+                boolean accessible = modifiers.contains(Modifier.PUBLIC)
+                        || (!modifiers.contains(Modifier.PRIVATE) && packageName.equals(packageOf(current)));
+                if (!accessible || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+                    return null;
+                }
+                Column column = toColumn(field, annotation);
+                if (column == null) {
+                    return null;
+                }
+                columns.add(column);
+            }
+            TypeMirror superType = current.getSuperclass();
+            current = superType.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superType).asElement()
+                    : null;
+        }
+        // Mapper.classToDbColumns ile aynı sıra: ordinal, eşitse sütun adı. Alan sırası kullanılamaz;
+        // getDeclaredFields() sırası belirsizdir (ART'ta ada göre, JVM'de çoğunlukla bildirim sırası).
+        Collections.sort(columns, Comparator.<Column>comparingInt(c -> c.ordinal).thenComparing(c -> c.columnName));
+        return columns;
+    }
+
+    private Column toColumn(VariableElement field, AnnotationMirror annotation) {
+        Column column = new Column();
+        column.fieldName = field.getSimpleName().toString();
+        column.columnName = column.fieldName;
+        column.ordinal = 1010;
+
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            String key = entry.getKey().getSimpleName().toString();
+            Object value = entry.getValue().getValue();
+            switch (key) {
+                case "name":
+                    if (!((String) value).isEmpty()) column.columnName = (String) value;
+                    break;
+                case "isPrimaryKey":
+                    column.isPrimaryKey = (Boolean) value;
+                    break;
+                case "isIdentity":
+                    column.isIdentity = (Boolean) value;
+                    break;
+                case "ordinal":
+                    column.ordinal = (Integer) value;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        TypeMirror fieldType = field.asType();
+        column.primitive = fieldType.getKind().isPrimitive();
+        switch (fieldType.getKind()) {
+            case INT: column.kind = Kind.INT; return column;
+            case LONG: column.kind = Kind.LONG; return column;
+            case FLOAT: column.kind = Kind.FLOAT; return column;
+            case DOUBLE: column.kind = Kind.DOUBLE; return column;
+            case BOOLEAN: column.kind = Kind.BOOLEAN; return column;
+            case ARRAY:
+                if (fieldType.toString().equals("byte[]")) {
+                    column.kind = Kind.BYTES;
+                    return column;
+                }
+                return null;
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+
+        String typeName = processingEnv.getTypeUtils().erasure(fieldType).toString();
+        switch (typeName) {
+            case "java.lang.Integer": column.kind = Kind.INT; return column;
+            case "java.lang.Long": column.kind = Kind.LONG; return column;
+            case "java.lang.Float": column.kind = Kind.FLOAT; return column;
+            case "java.lang.Double": column.kind = Kind.DOUBLE; return column;
+            case "java.lang.Boolean": column.kind = Kind.BOOLEAN; return column;
+            case "java.lang.String": column.kind = Kind.STRING; return column;
+            case "java.time.LocalDateTime": column.kind = Kind.LOCAL_DATE_TIME; return column;
+            case "java.time.LocalDate": column.kind = Kind.LOCAL_DATE; return column;
+            default: return null;
+        }
+    }
+
+    // --- KOD ÜRETİMİ ---
+
+    private void writeMapper(TypeElement type, List<Column> columns) throws IOException {
+        String packageName = packageOf(type);
+        String entity = type.getSimpleName().toString();
+        String mapperName = entity + MAPPER_SUFFIX;
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import android.content.ContentValues;\n");
+        out.append("import android.database.Cursor;\n");
+        out.append("import android.database.sqlite.SQLiteProgram;\n\n");
+        out.append("import lib.persistence.profile.EntityMapper;\n");
+        out.append("import lib.persistence.profile.Mapper;\n\n");
+        out.append("/**\n * ").append(entity)
+                .append(" için EntityMapperProcessor tarafından üretildi. Elle düzenlemeyin.\n */\n");
+        out.append("public final class ").append(mapperName)
+                .append(" implements EntityMapper<").append(entity).append("> {\n\n");
+
+        // Sütun adları (ordinal sırası)
+        out.append("    private static final String[] COLUMNS = {");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) out.append(", ");
+            out.append('"').append(columns.get(i).columnName).append('"');
+        }
+        out.append("};\n\n");
+
+        // resolveColumns
+        out.append("    @Override\n");
+        out.append("    public int[] resolveColumns(Cursor cursor) {\n");
+        out.append("        int[] indexes = new int[COLUMNS.length];\n");
+        out.append("        for (int i = 0; i < COLUMNS.length; i++) {\n");
+        out.append("            indexes[i] = cursor.getColumnIndex(COLUMNS[i]);\n");
+        out.append("        }\n");
+        out.append("        return indexes;\n");
+        out.append("    }\n\n");
+
+        // mapRow
+        out.append("    @Override\n");
+        out.append("    public ").append(entity).append(" mapRow(Cursor cursor, int[] indexes) {\n");
+        out.append("        ").append(entity).append(" object = new ").append(entity).append("();\n");
+        out.append("        int index;\n");
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            out.append("        index = indexes[").append(i).append("];\n");
+            out.append("        if (index != -1 && !cursor.isNull(index)) {\n");
+            out.append("            object.").append(column.fieldName).append(" = ")
+                    .append(readExpression(column)).append(";\n");
+            out.append("        }\n");
+        }
+        out.append("        return object;\n");
+        out.append("    }\n\n");
+
+        // bindInsert
+        out.append("    @Override\n");
+        out.append("    public void bindInsert(SQLiteProgram program, ").append(entity).append(" object) {\n");
+        int index = 1;
+        for (Column column : columns) {
+            if (column.isIdentity) continue;
+            out.append("        ").append(bindStatement(column, index++)).append('\n');
+        }
+        out.append("    }\n\n");
+
+        // bindUpdate: SET sütunları, en son birincil anahtar
+        out.append("    @Override\n");
+        out.append("    public void bindUpdate(SQLiteProgram program, ").append(entity).append(" object) {\n");
+        index = 1;
+        Column primaryKey = null;
+        for (Column column : columns) {
+            if (column.isPrimaryKey) {
+                primaryKey = column;
+            } else if (!column.isIdentity) {
+                out.append("        ").append(bindStatement(column, index++)).append('\n');
+            }
+        }
+        if (primaryKey != null) {
+            out.append("        ").append(bindStatement(primaryKey, index)).append('\n');
+        } else {
+            out.append("        program.bindNull(").append(index).append(");\n");
+        }
+        out.append("    }\n\n");
+
+        // toContentValues
+        out.append("    @Override\n");
+        out.append("    public ContentValues toContentValues(").append(entity).append(" object) {\n");
+        out.append("        ContentValues values = new ContentValues();\n");
+        for (Column column : columns) {
+            if (column.isIdentity) continue;
+            out.append("        ").append(putStatement(column)).append('\n');
+        }
+        out.append("        return values;\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? mapperName : packageName + "." + mapperName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private static String readExpression(Column column) {
+        switch (column.kind) {
+            case INT: return "cursor.getInt(index)";
+            case LONG: return "cursor.getLong(index)";
+            case FLOAT: return "cursor.getFloat(index)";
+            case DOUBLE: return "cursor.getDouble(index)";
+            case BOOLEAN: return "cursor.getInt(index) == 1";
+            case STRING: return "cursor.getString(index)";
+            case BYTES: return "cursor.getBlob(index)";
+            case LOCAL_DATE_TIME: return "Mapper.parseLocalDateTime(cursor.getString(index))";
+            case LOCAL_DATE: return "Mapper.parseLocalDate(cursor.getString(index))";
+            default: throw new IllegalStateException(column.kind.name());
+        }
+    }
+
+    private static String bindStatement(Column column, int index) {
+        String value = "object." + column.fieldName;
+        if (column.primitive) {
+            switch (column.kind) {
+                case INT:
+                case LONG:
+                    return "program.bindLong(" + index + ", " + value + ");";
+                case FLOAT:
+                case DOUBLE:
+                    return "program.bindDouble(" + index + ", " + value + ");";
+                case BOOLEAN:
+                    return "program.bindLong(" + index + ", " + value + " ? 1 : 0);";
+                default:
+                    break;
+            }
+        }
+        // Referans tipler null olabilir; kodlama Mapper.bindValue ile aynı kalır.
+        return "Mapper.bindValue(program, " + index + ", " + value + ");";
+    }
+
+    private static String putStatement(Column column) {
+        String key = "\"" + column.columnName + "\"";
+        String value = "object." + column.fieldName;
+        if (column.primitive) {
+            if (column.kind == Kind.BOOLEAN) {
+                return "values.put(" + key + ", " + value + " ? 1 : 0);";
+            }
+            return "values.put(" + key + ", " + value + ");";
+        }
+        return "Mapper.putInContentValues(values, " + key + ", " + value + ");";
+    }
+
+    // --- YARDIMCILAR ---
+
+    private AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String packageOf(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "NetworkAndDbContextDemo"
 include(":app")
+include(":persistence-compiler")
  
\ No newline at end of file